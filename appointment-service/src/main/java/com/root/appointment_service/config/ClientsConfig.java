@@ -1,18 +1,54 @@
 package com.root.appointment_service.config;
 
+import com.root.clinic_common.http.InterServiceHttpConfig;
+import com.root.clinic_common.http.RemoteGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * RestClients hacia patient-service y doctor-service sobre el transporte compartido de
+ * {@link InterServiceHttpConfig} (pool, timeouts, HTTP/2 opcional). Cada cliente pasa por su
+ * {@link RemoteGuard}.
+ */
 @Configuration
+@Import(InterServiceHttpConfig.class)
 public class ClientsConfig {
+
     @Bean(name = "patientRestClient")
-    public RestClient patientClient(@Value("${services.patient.base-url}") String base) {
-        return RestClient.builder().baseUrl(base).build();
+    public RestClient patientClient(@Value("${services.patient.base-url}") String base,
+                                    @Qualifier("interServiceRequestFactory") ClientHttpRequestFactory requestFactory,
+                                    ObservationRegistry observations,
+                                    RemoteGuard.Settings guard, MeterRegistry registry) {
+        return InterServiceHttpConfig.restClient("patient-service", base, requestFactory, observations, guard, registry);
     }
 
     @Bean(name = "doctorRestClient")
-    public RestClient doctorClient(@Value("${services.doctor.base-url}") String base) {
-        return RestClient.builder().baseUrl(base).build();
+    public RestClient doctorClient(@Value("${services.doctor.base-url}") String base,
+                                   @Qualifier("interServiceRequestFactory") ClientHttpRequestFactory requestFactory,
+                                   ObservationRegistry observations,
+                                   RemoteGuard.Settings guard, MeterRegistry registry) {
+        return InterServiceHttpConfig.restClient("doctor-service", base, requestFactory, observations, guard, registry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.http.version", havingValue = InterServiceHttpConfig.POOLED, matchIfMissing = true)
+    public MeterBinder interServicePoolMetrics(
+            @Qualifier("interServiceConnectionManager") PoolingHttpClientConnectionManager pool,
+            @Value("${services.patient.base-url}") String patientBase,
+            @Value("${services.doctor.base-url}") String doctorBase) {
+        return InterServiceHttpConfig.poolMetrics(pool, Map.of(
+                "patient-service", URI.create(patientBase),
+                "doctor-service", URI.create(doctorBase)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.root.appointment_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.*;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorsConfig {
+
+    // Pool acotado para calcular disponibilidad por (médico, día) en paralelo
+    @Bean(name = "availabilityExecutor")
+    public ThreadPoolTaskExecutor availabilityExecutor(@Value("${app.availability.pool-size:4}") int poolSize,
+                                                       @Value("${app.availability.queue-capacity:200}") int queueCapacity) {
+        var ex = new ThreadPoolTaskExecutor();
+        ex.setThreadNamePrefix("availability-");
+        ex.setCorePoolSize(poolSize);
+        ex.setMaxPoolSize(poolSize);
+        ex.setQueueCapacity(queueCapacity);
+        // Si el pool se satura, calcula el hilo que hizo la petición (backpressure)
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return ex;
+    }
+
+    // Llamadas bulk a patient-service/doctor-service que juntan búsquedas individuales concurrentes
+    @Bean(name = "lookupExecutor")
+    public ThreadPoolTaskExecutor lookupExecutor(@Value("${app.lookups.pool-size:4}") int poolSize,
+                                                 @Value("${app.lookups.queue-capacity:100}") int queueCapacity) {
+        var ex = new ThreadPoolTaskExecutor();
+        ex.setThreadNamePrefix("lookup-");
+        ex.setCorePoolSize(poolSize);
+        ex.setMaxPoolSize(poolSize);
+        ex.setQueueCapacity(queueCapacity);
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return ex;
+    }
+}
@@ -0,0 +1,24 @@
+package com.root.appointment_service.config;
+
+import com.root.clinic_common.cache.PatientCache;
+import com.root.clinic_common.cache.PatientCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.*;
+
+import java.time.Duration;
+
+@Configuration
+public class PatientCacheConfig {
+
+    // Cache de pacientes, invalidada por patient.updated/deleted
+    @Bean
+    public PatientCache patientCache(@Value("${app.patients.cache.max-size:10000}") int maxSize,
+                                     @Value("${app.patients.cache.ttl:10m}") Duration ttl) {
+        return new PatientCache(maxSize, ttl);
+    }
+
+    @Bean
+    public PatientCacheMetrics patientCacheMetrics(PatientCache cache) {
+        return new PatientCacheMetrics(cache);
+    }
+}
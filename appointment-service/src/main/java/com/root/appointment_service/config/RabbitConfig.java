@@ -1,10 +1,16 @@
 package com.root.appointment_service.config;
 
+import com.root.clinic_common.messaging.EventMessageConverters;
+import com.root.appointment_service.messaging.DoctorEvent;
+import com.root.appointment_service.messaging.PatientEvent;
+import com.root.appointment_service.service.AppointmentEvent;
 import org.springframework.amqp.core.TopicExchange;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.*;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.util.Map;
+
 @Configuration
 public class RabbitConfig {
     @Value("${app.amqp.exchange}")
@@ -15,8 +21,13 @@ public class RabbitConfig {
         return new TopicExchange(exchangeName, true, false);
     }
 
+    // JSON o CBOR según el content-type de cada mensaje; se publica con app.amqp.content-type
     @Bean
-    public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(@Value("${app.amqp.content-type:application/json}") String contentType) {
+        Map<String, Class<?>> types = Map.of(
+                AppointmentEvent.TYPE_ID, AppointmentEvent.class,
+                DoctorEvent.TYPE_ID, DoctorEvent.class,
+                PatientEvent.TYPE_ID, PatientEvent.class);
+        return EventMessageConverters.byContentType(contentType, types);
     }
 }
\ No newline at end of file
@@ -12,7 +12,8 @@ import java.util.UUID;
 @Builder
 @Entity
 @Table(name = "appointments", indexes = { @Index(name = "idx_doctor_start", columnList = "doctorId,startAt"),
-        @Index(name = "idx_patient_start", columnList = "patientId,startAt") })
+        @Index(name = "idx_patient_start", columnList = "patientId,startAt"),
+        @Index(name = "idx_reminder_due", columnList = "reminderSentAt,startAt") })
 public class Appointment {
     @Id
     @GeneratedValue
@@ -33,6 +34,7 @@ public class Appointment {
     private AppointmentStatus status;
     @Column(length = 240)
     private String notes;
+    private Instant reminderSentAt; // null = recordatorio pendiente; se reinicia al reprogramar
     @Column(nullable = false)
     private Instant createdAt;
     @Column(nullable = false)
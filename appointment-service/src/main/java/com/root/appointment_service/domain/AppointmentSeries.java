@@ -0,0 +1,65 @@
+package com.root.appointment_service.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Serie de citas recurrentes guardada como regla (primera ocurrencia, duración, cada N días y
+ * cantidad de ocurrencias), no como filas por ocurrencia. {@code lastEnd} es el fin de la última
+ * ocurrencia y solo sirve para filtrar por ventana en las consultas.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "appointment_series", indexes = { @Index(name = "idx_series_doctor", columnList = "doctorId,firstStart"),
+        @Index(name = "idx_series_patient", columnList = "patientId,firstStart") })
+public class AppointmentSeries {
+    @Id
+    @GeneratedValue
+    private UUID id;
+    @Column(nullable = false)
+    private UUID patientId;
+    @Column(nullable = false)
+    private UUID doctorId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private Specialty specialty;
+    @Column(nullable = false)
+    private Instant firstStart;
+    @Column(nullable = false)
+    private int durationMinutes;
+    @Column(nullable = false)
+    private int intervalDays;
+    @Column(nullable = false)
+    private int occurrences;
+    @Column(nullable = false)
+    private Instant lastEnd;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AppointmentStatus status;
+    @Column(length = 240)
+    private String notes;
+    @Column(nullable = false)
+    private Instant createdAt;
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    void onCreate() {
+        var now = Instant.now();
+        createdAt = now;
+        updatedAt = now;
+        if (status == null)
+            status = AppointmentStatus.SCHEDULED;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
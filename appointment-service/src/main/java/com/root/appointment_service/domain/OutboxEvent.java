@@ -0,0 +1,41 @@
+package com.root.appointment_service.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/** Evento pendiente de publicar, escrito en la misma transacción que el cambio de la cita. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "appointment_outbox", indexes = { @Index(name = "idx_outbox_created", columnList = "createdAt") })
+public class OutboxEvent {
+    @Id
+    @GeneratedValue
+    private UUID id;
+    // Id del evento (eventId del sobre y messageId AMQP) para deduplicar en los consumidores
+    private UUID eventId;
+    @Column(nullable = false, length = 80)
+    private String exchange;
+    @Column(nullable = false, length = 80)
+    private String routingKey;
+    @Column(length = 80)
+    private String contentType;
+    @Column(length = 200)
+    private String typeId;
+    // Cuerpo ya serializado con el MessageConverter del RabbitTemplate
+    @Column(nullable = false)
+    private byte[] body;
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null)
+            createdAt = Instant.now();
+    }
+}
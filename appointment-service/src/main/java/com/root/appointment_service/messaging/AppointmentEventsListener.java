@@ -0,0 +1,33 @@
+package com.root.appointment_service.messaging;
+
+import com.root.appointment_service.service.AppointmentEvent;
+import com.root.appointment_service.service.AppointmentIntervalIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.*;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantiene el {@link AppointmentIntervalIndex} al día con las citas creadas, reprogramadas o
+ * canceladas por cualquier instancia (cola anónima por instancia; las propias llegan repetidas
+ * y aplicarlas de nuevo no cambia nada).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AppointmentEventsListener {
+
+    private final AppointmentIntervalIndex index;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue(autoDelete = "true", exclusive = "true"),
+            exchange = @Exchange(value = "${app.amqp.exchange}", type = "topic"),
+            key = {"${app.amqp.routing.created}", "${app.amqp.routing.rescheduled}", "${app.amqp.routing.cancelled}"}))
+    public void onEvent(AppointmentEvent event) {
+        if (event.payload() == null || event.payload().id() == null) {
+            log.warn("Evento de cita ignorado ({}): sin payload", event.type());
+            return;
+        }
+        index.apply(event.payload());
+    }
+}
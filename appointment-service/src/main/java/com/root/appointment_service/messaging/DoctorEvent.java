@@ -0,0 +1,26 @@
+package com.root.appointment_service.messaging;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Evento publicado por doctor-service ({@code __TypeId__ = doctor.event}). El payload es el médico
+ * como Map (lo que guarda el {@link com.root.appointment_service.service.remote.DoctorDirectory}),
+ * {@code {"id": ...}} en doctor.deleted, o el id suelto como string si viene de un productor
+ * anterior a los sobres tipados (despliegue gradual).
+ */
+public record DoctorEvent(UUID eventId, String type, Instant occurredAt, Object payload) {
+    public static final String TYPE_ID = "doctor.event";
+
+    /** Payload como médico, o null si vino solo el id. */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> doctor() {
+        return payload instanceof Map<?, ?> m ? (Map<String, Object>) m : null;
+    }
+
+    public UUID doctorId() {
+        Object id = payload instanceof Map<?, ?> m ? m.get("id") : payload;
+        return id == null ? null : UUID.fromString(id.toString());
+    }
+}
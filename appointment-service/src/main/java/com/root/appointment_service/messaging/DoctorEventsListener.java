@@ -0,0 +1,36 @@
+package com.root.appointment_service.messaging;
+
+import com.root.appointment_service.service.remote.DoctorDirectory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.*;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantiene el {@link DoctorDirectory} al día con los eventos doctor.created/updated/deleted.
+ * Cada instancia usa su propia cola anónima para recibir todos los eventos.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DoctorEventsListener {
+
+    private final DoctorDirectory directory;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue(autoDelete = "true", exclusive = "true"),
+            exchange = @Exchange(value = "${app.amqp.doctors.exchange}", type = "topic"),
+            key = "${app.amqp.doctors.binding}"))
+    public void onEvent(DoctorEvent event) {
+        String type = event.type();
+        try {
+            if (type.endsWith(".deleted")) {
+                directory.remove(event.doctorId());
+            } else if (event.doctor() != null) {
+                directory.put(event.doctor());
+            }
+        } catch (Exception e) {
+            log.warn("Evento de médico ignorado ({}): {}", type, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.root.appointment_service.messaging;
+
+import com.root.clinic_common.messaging.EntityRef;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Evento publicado por patient-service ({@code __TypeId__ = patient.event}); aquí solo interesa el id. */
+public record PatientEvent(UUID eventId, String type, Instant occurredAt, EntityRef payload) {
+    public static final String TYPE_ID = "patient.event";
+}
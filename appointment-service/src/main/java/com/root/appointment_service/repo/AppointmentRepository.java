@@ -2,10 +2,13 @@ package com.root.appointment_service.repo;
 
 import com.root.appointment_service.domain.*;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
 import java.util.*;
 
@@ -31,14 +34,147 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
                             @Param("end") Instant end,
                             @Param("active") Collection<AppointmentStatus> active);
 
+  // Solape del médico o del paciente en una sola consulta (chequeo final antes de reservar)
+  @Query("""
+         select (count(a)>0) from Appointment a
+         where (a.doctorId=:doctorId or a.patientId=:patientId) and a.status in :active
+           and a.startAt < :end and a.endAt > :start
+         """)
+  boolean hasOverlap(@Param("doctorId") UUID doctorId,
+                     @Param("patientId") UUID patientId,
+                     @Param("start") Instant start,
+                     @Param("end") Instant end,
+                     @Param("active") Collection<AppointmentStatus> active);
+
+  // Ocupados del médico o del paciente en una ventana, en una sola consulta (búsqueda de huecos)
+  @Query("""
+         select a from Appointment a
+         where (a.doctorId=:doctorId or a.patientId=:patientId) and a.status in :active
+           and a.startAt < :end and a.endAt > :start
+         order by a.startAt
+         """)
+  List<Appointment> findBusy(@Param("doctorId") UUID doctorId,
+                             @Param("patientId") UUID patientId,
+                             @Param("start") Instant start,
+                             @Param("end") Instant end,
+                             @Param("active") Collection<AppointmentStatus> active);
+
+  // Reservas activas de varios médicos en un rango (disponibilidad semanal / por especialidad)
+  @Query("""
+         select a from Appointment a
+         where a.doctorId in :doctorIds and a.status in :active
+           and a.startAt < :end and a.endAt > :start
+         order by a.doctorId, a.startAt
+         """)
+  List<Appointment> findActiveForDoctors(@Param("doctorIds") Collection<UUID> doctorIds,
+                                         @Param("start") Instant start,
+                                         @Param("end") Instant end,
+                                         @Param("active") Collection<AppointmentStatus> active);
+
+  // Reservas de todos los médicos candidatos y del paciente (asignación automática de médico)
+  @Query("""
+         select a from Appointment a
+         where (a.doctorId in :doctorIds or a.patientId=:patientId) and a.status in :active
+           and a.startAt < :end and a.endAt > :start
+         order by a.startAt
+         """)
+  List<Appointment> findActiveForDoctorsOrPatient(@Param("doctorIds") Collection<UUID> doctorIds,
+                                                  @Param("patientId") UUID patientId,
+                                                  @Param("start") Instant start,
+                                                  @Param("end") Instant end,
+                                                  @Param("active") Collection<AppointmentStatus> active);
+
+  // Reservas activas de varios médicos o pacientes en una ventana (alta masiva)
+  @Query("""
+         select a from Appointment a
+         where (a.doctorId in :doctorIds or a.patientId in :patientIds) and a.status in :active
+           and a.startAt < :end and a.endAt > :start
+         """)
+  List<Appointment> findActiveForDoctorsOrPatients(@Param("doctorIds") Collection<UUID> doctorIds,
+                                                   @Param("patientIds") Collection<UUID> patientIds,
+                                                   @Param("start") Instant start,
+                                                   @Param("end") Instant end,
+                                                   @Param("active") Collection<AppointmentStatus> active);
+
   // 🔽 NUEVO: lista del día por doctor (para construir slots)
   List<Appointment> findByDoctorIdAndStartAtBetweenOrderByStartAt(UUID doctorId, Instant dayStart, Instant dayEnd);
 
   Page<Appointment> findByPatientId(UUID patientId, Pageable pageable);
   Page<Appointment> findByDoctorId(UUID doctorId, Pageable pageable);
 
+  // Citas activas que aún no terminan (carga inicial del índice en memoria)
+  List<Appointment> findByStatusInAndEndAtAfter(Collection<AppointmentStatus> statuses, Instant now);
+
   Page<Appointment> findByStatusInAndStartAtAfter(Collection<AppointmentStatus> statuses,
                                                   Instant now,
                                                   Pageable pageable);
 
+  // Recordatorios pendientes en [from, until); SKIP LOCKED: varias réplicas se reparten las filas sin duplicar
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query("""
+         select a from Appointment a
+         where a.reminderSentAt is null and a.status in :active
+           and a.startAt >= :from and a.startAt < :until
+         order by a.startAt, a.id
+         """)
+  List<Appointment> lockDueReminders(@Param("active") Collection<AppointmentStatus> active,
+                                     @Param("from") Instant from,
+                                     @Param("until") Instant until,
+                                     Limit limit);
+
+  // Marca directa (sin @PreUpdate): el recordatorio no cuenta como modificación de la cita
+  @Modifying
+  @Query("update Appointment a set a.reminderSentAt = :sentAt where a.id in :ids")
+  int markReminderSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") Instant sentAt);
+
+  // 🔽 Listados por cursor (startAt, id): sin COUNT y con costo constante en páginas profundas
+  @Query("select a from Appointment a where a.patientId=:patientId order by a.startAt, a.id")
+  List<Appointment> scrollByPatient(@Param("patientId") UUID patientId, Limit limit);
+
+  @Query("""
+         select a from Appointment a
+         where a.patientId=:patientId
+           and (a.startAt > :startAt or (a.startAt = :startAt and a.id > :id))
+         order by a.startAt, a.id
+         """)
+  List<Appointment> scrollByPatientAfter(@Param("patientId") UUID patientId,
+                                         @Param("startAt") Instant startAt,
+                                         @Param("id") UUID id,
+                                         Limit limit);
+
+  @Query("select a from Appointment a where a.doctorId=:doctorId order by a.startAt, a.id")
+  List<Appointment> scrollByDoctor(@Param("doctorId") UUID doctorId, Limit limit);
+
+  @Query("""
+         select a from Appointment a
+         where a.doctorId=:doctorId
+           and (a.startAt > :startAt or (a.startAt = :startAt and a.id > :id))
+         order by a.startAt, a.id
+         """)
+  List<Appointment> scrollByDoctorAfter(@Param("doctorId") UUID doctorId,
+                                        @Param("startAt") Instant startAt,
+                                        @Param("id") UUID id,
+                                        Limit limit);
+
+  @Query("""
+         select a from Appointment a
+         where a.status in :statuses and a.startAt > :now
+         order by a.startAt, a.id
+         """)
+  List<Appointment> scrollUpcoming(@Param("statuses") Collection<AppointmentStatus> statuses,
+                                   @Param("now") Instant now,
+                                   Limit limit);
+
+  @Query("""
+         select a from Appointment a
+         where a.status in :statuses
+           and (a.startAt > :startAt or (a.startAt = :startAt and a.id > :id))
+         order by a.startAt, a.id
+         """)
+  List<Appointment> scrollUpcomingAfter(@Param("statuses") Collection<AppointmentStatus> statuses,
+                                        @Param("startAt") Instant startAt,
+                                        @Param("id") UUID id,
+                                        Limit limit);
+
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.root.appointment_service.repo;
+
+import com.root.appointment_service.domain.*;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import java.time.Instant;
+import java.util.*;
+
+public interface AppointmentSeriesRepository extends JpaRepository<AppointmentSeries, UUID> {
+
+  // Series vigentes de esos médicos o pacientes cuyo rango [firstStart, lastEnd) toca la ventana
+  @Query("""
+         select s from AppointmentSeries s
+         where (s.doctorId in :doctorIds or s.patientId in :patientIds) and s.status = :status
+           and s.firstStart < :end and s.lastEnd > :start
+         """)
+  List<AppointmentSeries> findActive(@Param("doctorIds") Collection<UUID> doctorIds,
+                                     @Param("patientIds") Collection<UUID> patientIds,
+                                     @Param("start") Instant start,
+                                     @Param("end") Instant end,
+                                     @Param("status") AppointmentStatus status);
+}
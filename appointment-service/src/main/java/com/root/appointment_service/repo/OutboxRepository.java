@@ -0,0 +1,18 @@
+package com.root.appointment_service.repo;
+
+import com.root.appointment_service.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import java.util.*;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, UUID> {
+
+  // Lote más antiguo; SKIP LOCKED permite varios relays (réplicas) sin publicar dos veces
+  @Query(value = """
+         select * from appointment_outbox
+         order by created_at
+         limit :batch
+         for update skip locked
+         """, nativeQuery = true)
+  List<OutboxEvent> lockBatch(@Param("batch") int batch);
+}
@@ -7,47 +7,62 @@ import com.root.appointment_service.service.remote.PatientClient;
 import com.root.appointment_service.web.dto.*;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Limit;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class AppointmentAppService {
 
+    private static final int MAX_RANGE_DAYS = 31;
+    private static final int MAX_RANGE_DOCTORS = 50;
+    private static final int AUTO_ADJUST_JUMPS = 10;
+    private static final List<AppointmentStatus> ACTIVE =
+            List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.RESCHEDULED);
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("America/Guayaquil");
+
     private final AppointmentRepository repo;
     private final AvailabilityService availability;
     private final AppointmentEventPublisher events;
+    private final AppointmentIntervalIndex index;
     private final PatientClient patients;
     private final DoctorClient doctors;
+    private final DoctorAssignmentService assignment;
+    private final RecurringSeriesService series;
+    private final BookingLocks locks;
 
     // === Flujo existente: crear con Instant ===
     public AppointmentResponse create(@Valid CreateAppointmentRequest req) {
-        var p = patients.getPatient(req.patientId());
-        if (p == null) throw new IllegalArgumentException("Paciente no existe");
+        // Paciente y médico (o candidatos) en paralelo: si uno falla se cancela el otro
+        var candidates = RemoteLookups.await(checkPatient(req.patientId()),
+                checkDoctor(req.doctorId(), req.specialty()));
 
         UUID doctorId = req.doctorId();
         if (doctorId == null) {
-            var list = doctors.findBySpecialty(req.specialty());
-            if (list.isEmpty()) throw new IllegalArgumentException("No hay médicos para la especialidad");
-            doctorId = UUID.fromString(String.valueOf(list.get(0).get("id")));
-        } else {
-            var d = doctors.getDoctor(doctorId);
-            if (d == null || !String.valueOf(d.get("specialty")).equals(req.specialty().name()))
-                throw new IllegalArgumentException("Médico no coincide con especialidad");
+            // Médico con el slot libre más cercano (y menor carga del día) entre los de la especialidad
+            doctorId = assignment.pick(candidates, req.patientId(), req.startAt(),
+                    req.durationMinutes(), AUTO_ADJUST_JUMPS, DEFAULT_ZONE);
         }
 
         Instant start = req.startAt();
         Instant end = start.plus(Duration.ofMinutes(req.durationMinutes()));
         boolean auto = false;
 
+        // Desde acá hasta el commit nadie más reserva para este médico ni este paciente
+        locks.lock(List.of(doctorId, req.patientId()));
         if (!availability.isFree(doctorId, req.patientId(), start, end)) {
             // Busca siguiente slot libre (manteniendo duración)
-            var next = availability.nextAvailable(doctorId, req.patientId(), start, req.durationMinutes(), 10);
+            var next = availability.nextAvailable(doctorId, req.patientId(), start, req.durationMinutes(), AUTO_ADJUST_JUMPS)
+                    .orElseThrow(() -> new BookingConflictException("No hay horarios libres cercanos al solicitado"));
             start = next[0]; end = next[1]; auto = true;
         }
 
@@ -61,6 +76,7 @@ public class AppointmentAppService {
                 .notes(req.notes())
                 .build();
         a = repo.save(a);
+        index.track(a);
 
         var res = toResponse(a, auto);
         events.created(res);
@@ -69,27 +85,24 @@ public class AppointmentAppService {
 
     // === NUEVO: crear por fecha + hora, sin auto-ajuste (falla si hay solape) ===
     public AppointmentResponse createByDate(@Valid CreateAppointmentByDateRequest req) {
-        var p = patients.getPatient(req.patientId());
-        if (p == null) throw new IllegalArgumentException("Paciente no existe");
-
-        UUID doctorId = req.doctorId();
-        if (doctorId == null) {
-            var list = doctors.findBySpecialty(req.specialty());
-            if (list.isEmpty()) throw new IllegalArgumentException("No hay médicos para la especialidad");
-            doctorId = UUID.fromString(String.valueOf(list.get(0).get("id")));
-        } else {
-            var d = doctors.getDoctor(doctorId);
-            if (d == null || !String.valueOf(d.get("specialty")).equals(req.specialty().name()))
-                throw new IllegalArgumentException("Médico no coincide con especialidad");
-        }
+        var candidates = RemoteLookups.await(checkPatient(req.patientId()),
+                checkDoctor(req.doctorId(), req.specialty()));
 
         String zoneId = (req.zone() == null || req.zone().isBlank()) ? "America/Guayaquil" : req.zone();
         ZoneId zone = ZoneId.of(zoneId);
         Instant start = req.date().atTime(req.time()).atZone(zone).toInstant();
         Instant end = start.plus(Duration.ofMinutes(req.durationMinutes()));
 
+        UUID doctorId = req.doctorId();
+        if (doctorId == null) {
+            // Sin auto-ajuste: solo cuenta el slot exacto, así que se busca un médico libre a esa hora
+            doctorId = assignment.pick(candidates, req.patientId(), start,
+                    req.durationMinutes(), 1, zone);
+        }
+
+        locks.lock(List.of(doctorId, req.patientId()));
         if (!availability.isFree(doctorId, req.patientId(), start, end))
-            throw new IllegalArgumentException("Horario no disponible (solapa con otra cita)");
+            throw new BookingConflictException("Horario no disponible (solapa con otra cita)");
 
         var a = Appointment.builder()
                 .patientId(req.patientId())
@@ -101,18 +114,119 @@ public class AppointmentAppService {
                 .notes(req.notes())
                 .build();
         a = repo.save(a);
+        index.track(a);
 
         var res = toResponse(a, false);
         events.created(res);
         return res;
     }
 
+    // === NUEVO: alta masiva (importación de agendas, bloques de sesiones) ===
+    // Sin auto-ajuste: cada cita se crea en su horario o se informa el motivo del rechazo.
+    // Pacientes y médicos se validan con una llamada bulk cada uno y los conflictos (contra la base,
+    // las series y dentro del mismo lote) se resuelven con una sola consulta; gana la primera del lote.
+    public BulkAppointmentResponse createBulk(@Valid BulkAppointmentRequest req) {
+        var items = req.appointments();
+        var patientIds = items.stream().map(BulkAppointmentItem::patientId).collect(Collectors.toSet());
+        var doctorIds = items.stream().map(BulkAppointmentItem::doctorId).collect(Collectors.toSet());
+        var knownPatients = patients.getPatients(patientIds);
+        var knownDoctors = doctors.getDoctors(doctorIds);
+
+        Instant from = items.stream().map(BulkAppointmentItem::startAt).min(Comparator.naturalOrder()).orElseThrow();
+        Instant to = items.stream().map(it -> it.startAt().plus(Duration.ofMinutes(it.durationMinutes())))
+                .max(Comparator.naturalOrder()).orElseThrow();
+        var keys = new HashSet<UUID>(doctorIds);
+        keys.addAll(patientIds);
+        locks.lock(keys);
+        Map<UUID, AppointmentIntervalIndex.Timeline> doctorBusy = new HashMap<>();
+        Map<UUID, AppointmentIntervalIndex.Timeline> patientBusy = new HashMap<>();
+        var reserved = new ArrayList<>(repo.findActiveForDoctorsOrPatients(doctorIds, patientIds, from, to, ACTIVE));
+        reserved.addAll(series.expand(doctorIds, patientIds, from, to));
+        for (var a : reserved) {
+            long s = a.getStartAt().getEpochSecond(), e = a.getEndAt().getEpochSecond();
+            timeline(doctorBusy, a.getDoctorId()).add(a.getId(), s, e);
+            timeline(patientBusy, a.getPatientId()).add(a.getId(), s, e);
+        }
+
+        String[] errors = new String[items.size()];
+        List<Appointment> accepted = new ArrayList<>();
+        List<Integer> acceptedIndex = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            var it = items.get(i);
+            long s = it.startAt().getEpochSecond(), e = s + it.durationMinutes() * 60L;
+            var d = knownDoctors.get(it.doctorId());
+            if (!knownPatients.containsKey(it.patientId())) {
+                errors[i] = "Paciente no existe";
+            } else if (d == null || !String.valueOf(d.get("specialty")).equals(it.specialty().name())) {
+                errors[i] = "Médico no coincide con especialidad";
+            } else if (timeline(doctorBusy, it.doctorId()).overlaps(s, e)) {
+                errors[i] = "Horario no disponible para el médico";
+            } else if (timeline(patientBusy, it.patientId()).overlaps(s, e)) {
+                errors[i] = "El paciente ya tiene una cita en ese horario";
+            } else {
+                // Las aceptadas ocupan el horario para el resto del lote
+                UUID placeholder = new UUID(0, i);
+                timeline(doctorBusy, it.doctorId()).add(placeholder, s, e);
+                timeline(patientBusy, it.patientId()).add(placeholder, s, e);
+                accepted.add(Appointment.builder()
+                        .patientId(it.patientId())
+                        .doctorId(it.doctorId())
+                        .specialty(it.specialty())
+                        .startAt(it.startAt())
+                        .endAt(it.startAt().plus(Duration.ofMinutes(it.durationMinutes())))
+                        .status(AppointmentStatus.SCHEDULED)
+                        .notes(it.notes())
+                        .build());
+                acceptedIndex.add(i);
+            }
+        }
+
+        // Inserción por lotes JDBC (hibernate.jdbc.batch_size) y eventos al outbox también en lote
+        var saved = repo.saveAll(accepted);
+        saved.forEach(index::track);
+        var created = saved.stream().map(a -> toResponse(a, false)).toList();
+        events.createdAll(created);
+
+        AppointmentResponse[] byIndex = new AppointmentResponse[items.size()];
+        for (int k = 0; k < created.size(); k++) byIndex[acceptedIndex.get(k)] = created.get(k);
+        List<BulkAppointmentResult> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) results.add(new BulkAppointmentResult(i, byIndex[i], errors[i]));
+        return new BulkAppointmentResponse(created.size(), items.size() - created.size(), results);
+    }
+
     @Transactional(readOnly = true)
     public AppointmentResponse get(UUID id) {
         var a = repo.findById(id).orElseThrow(() -> new EntityNotFoundException("Turno no existe"));
         return toResponse(a, false);
     }
 
+    // === NUEVO: listados por cursor (paciente, médico o próximas citas activas) ===
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentResponse> list(UUID patientId, UUID doctorId, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), 100);
+        KeysetCursor after = (cursor == null || cursor.isBlank()) ? null : KeysetCursor.decode(cursor);
+        // Se pide una fila extra para saber si hay página siguiente sin hacer COUNT
+        var lim = Limit.of(limit + 1);
+        List<Appointment> rows;
+        if (patientId != null) {
+            rows = after == null ? repo.scrollByPatient(patientId, lim)
+                    : repo.scrollByPatientAfter(patientId, after.startAt(), after.id(), lim);
+        } else if (doctorId != null) {
+            rows = after == null ? repo.scrollByDoctor(doctorId, lim)
+                    : repo.scrollByDoctorAfter(doctorId, after.startAt(), after.id(), lim);
+        } else {
+            rows = after == null ? repo.scrollUpcoming(ACTIVE, Instant.now(), lim)
+                    : repo.scrollUpcomingAfter(ACTIVE, after.startAt(), after.id(), lim);
+        }
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            var last = rows.get(limit - 1);
+            next = new KeysetCursor(last.getStartAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(rows.stream().map(a -> toResponse(a, false)).toList(), limit, next);
+    }
+
     public AppointmentResponse reschedule(UUID id, @Valid RescheduleRequest req) {
         var a = repo.findById(id).orElseThrow(() -> new EntityNotFoundException("Turno no existe"));
 
@@ -122,14 +236,17 @@ public class AppointmentAppService {
                 : (int) Duration.between(a.getStartAt(), a.getEndAt()).toMinutes();
         Instant end = start.plus(Duration.ofMinutes(minutes));
 
+        locks.lock(List.of(doctorId, a.getPatientId()));
         if (!availability.isFree(doctorId, a.getPatientId(), start, end))
-            throw new IllegalArgumentException("Conflicto de horario");
+            throw new BookingConflictException("Conflicto de horario");
 
         a.setDoctorId(doctorId);
         a.setStartAt(start);
+        a.setReminderSentAt(null);
         a.setEndAt(end);
         a.setStatus(AppointmentStatus.RESCHEDULED);
         a.setNotes(req.notes() != null ? req.notes() : a.getNotes());
+        index.track(a);
 
         var res = toResponse(a, false);
         events.rescheduled(res);
@@ -139,6 +256,7 @@ public class AppointmentAppService {
     public void cancel(UUID id) {
         var a = repo.findById(id).orElseThrow(() -> new EntityNotFoundException("Turno no existe"));
         a.setStatus(AppointmentStatus.CANCELLED);
+        index.track(a);
         events.cancelled(toResponse(a, false));
     }
 
@@ -159,6 +277,48 @@ public class AppointmentAppService {
                 doctorId, date, "America/Guayaquil", slots, ws, we, dur
         );
 
+        return toSlotsResponse(doctorId, date, slots, ws, we, day);
+    }
+
+    // === NUEVO: disponibilidad por rango de días y varios médicos (o una especialidad) ===
+    @Transactional(readOnly = true)
+    public List<AvailableSlotsResponse> getAvailabilityRange(List<UUID> doctorIds,
+                                                             Specialty specialty,
+                                                             LocalDate from, LocalDate to,
+                                                             Integer slotMinutes,
+                                                             String workStart, String workEnd,
+                                                             Integer durationMinutes) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("Rango de fechas inválido");
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS)
+            throw new IllegalArgumentException("El rango no puede superar " + MAX_RANGE_DAYS + " días");
+
+        List<UUID> ids;
+        if (doctorIds != null && !doctorIds.isEmpty()) {
+            ids = doctorIds.stream().distinct().toList();
+        } else if (specialty != null) {
+            ids = doctors.findBySpecialty(specialty).stream()
+                    .map(d -> UUID.fromString(String.valueOf(d.get("id"))))
+                    .toList();
+        } else {
+            throw new IllegalArgumentException("Indique doctorIds o specialty");
+        }
+        if (ids.size() > MAX_RANGE_DOCTORS)
+            throw new IllegalArgumentException("Máximo " + MAX_RANGE_DOCTORS + " médicos por consulta");
+        if (ids.isEmpty()) return List.of();
+
+        int slots = (slotMinutes == null || slotMinutes <= 0) ? 30 : slotMinutes;
+        int dur = (durationMinutes == null || durationMinutes <= 0) ? slots : durationMinutes;
+        var ws = LocalTime.parse(workStart == null ? "08:00" : workStart);
+        var we = LocalTime.parse(workEnd == null ? "17:00" : workEnd);
+
+        return availability.getRangeAvailability(ids, from, to, "America/Guayaquil", slots, ws, we, dur).stream()
+                .map(dd -> toSlotsResponse(dd.doctorId(), dd.date(), slots, ws, we, dd.day()))
+                .toList();
+    }
+
+    private AvailableSlotsResponse toSlotsResponse(UUID doctorId, LocalDate date, int slots,
+                                                   LocalTime ws, LocalTime we,
+                                                   AvailabilityService.DailyAvailability day) {
         var reserved = day.reserved().stream()
                 .map(a -> new AvailabilitySlot(a.getStartAt(), a.getEndAt()))
                 .toList();
@@ -170,6 +330,30 @@ public class AppointmentAppService {
         return new AvailableSlotsResponse(doctorId, date, slots, ws.toString(), we.toString(), reserved, available);
     }
 
+    private static AppointmentIntervalIndex.Timeline timeline(Map<UUID, AppointmentIntervalIndex.Timeline> map, UUID key) {
+        return map.computeIfAbsent(key, k -> new AppointmentIntervalIndex.Timeline());
+    }
+
+    private CompletableFuture<Void> checkPatient(UUID patientId) {
+        return RemoteLookups.then(patients.getPatientAsync(patientId), p -> {
+            if (p == null) throw new IllegalArgumentException("Paciente no existe");
+            return null;
+        });
+    }
+
+    /** Con médico: valida su especialidad. Sin médico: los candidatos de la especialidad. */
+    private CompletableFuture<List<UUID>> checkDoctor(UUID doctorId, Specialty specialty) {
+        if (doctorId == null) return RemoteLookups.then(doctors.findBySpecialtyAsync(specialty), list -> {
+            if (list.isEmpty()) throw new IllegalArgumentException("No hay médicos para la especialidad");
+            return list.stream().map(d -> UUID.fromString(String.valueOf(d.get("id")))).toList();
+        });
+        return RemoteLookups.then(doctors.getDoctorAsync(doctorId), d -> {
+            if (d == null || !String.valueOf(d.get("specialty")).equals(specialty.name()))
+                throw new IllegalArgumentException("Médico no coincide con especialidad");
+            return List.of(doctorId);
+        });
+    }
+
     private AppointmentResponse toResponse(Appointment a, boolean auto) {
         return new AppointmentResponse(
                 a.getId(), a.getPatientId(), a.getDoctorId(), a.getSpecialty(),
@@ -0,0 +1,11 @@
+package com.root.appointment_service.service;
+
+import com.root.appointment_service.web.dto.AppointmentResponse;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Sobre de los eventos de citas. En el header __TypeId__ viaja {@link #TYPE_ID}, no el nombre de la clase. */
+public record AppointmentEvent(UUID eventId, String type, Instant occurredAt, AppointmentResponse payload) {
+    public static final String TYPE_ID = "appointment.event";
+}
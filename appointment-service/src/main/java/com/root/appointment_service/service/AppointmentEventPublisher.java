@@ -1,38 +1,78 @@
 package com.root.appointment_service.service;
 
+import com.root.appointment_service.domain.OutboxEvent;
+import com.root.appointment_service.repo.OutboxRepository;
+import com.root.appointment_service.web.dto.AppointmentResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import java.util.*;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
 
+/**
+ * Registra los eventos de citas en el outbox dentro de la transacción en curso;
+ * {@link OutboxRelay} los publica después en lotes. El hilo de la petición no toca RabbitMQ.
+ */
 @Component
 @RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
 public class AppointmentEventPublisher {
     private final RabbitTemplate rabbit;
-    private final TopicExchange exchange;
+    private final OutboxRepository outbox;
+    @Value("${app.amqp.exchange}")
+    private String exchangeName;
     @Value("${app.amqp.routing.created}")
     private String rkCreated;
     @Value("${app.amqp.routing.rescheduled}")
     private String rkRescheduled;
     @Value("${app.amqp.routing.cancelled}")
     private String rkCancelled;
+    @Value("${app.amqp.routing.reminder}")
+    private String rkReminder;
 
-    public void created(Object payload) {
+    public void created(AppointmentResponse payload) {
         send(rkCreated, payload);
     }
 
-    public void rescheduled(Object payload) {
+    public void rescheduled(AppointmentResponse payload) {
         send(rkRescheduled, payload);
     }
 
-    public void cancelled(Object payload) {
+    public void cancelled(AppointmentResponse payload) {
         send(rkCancelled, payload);
     }
 
-    private void send(String rk, Object payload) {
-        Map<String, Object> event = Map.of("type", rk, "occurredAt", new Date(), "payload", payload);
-        rabbit.convertAndSend(exchange.getName(), rk, event);
+    public void reminder(AppointmentResponse payload) {
+        send(rkReminder, payload);
     }
-}
\ No newline at end of file
+
+    /** Un appointment.created por cita, insertados en lote en el outbox. */
+    public void createdAll(List<AppointmentResponse> payloads) {
+        outbox.saveAll(payloads.stream().map(p -> toOutbox(rkCreated, p)).toList());
+    }
+
+    private void send(String rk, AppointmentResponse payload) {
+        outbox.save(toOutbox(rk, payload));
+    }
+
+    private OutboxEvent toOutbox(String rk, AppointmentResponse payload) {
+        UUID eventId = UUID.randomUUID();
+        var event = new AppointmentEvent(eventId, rk, Instant.now(), payload);
+        // Se serializa ahora con el mismo converter que usaría convertAndSend (JSON o CBOR según app.amqp.content-type)
+        var message = rabbit.getMessageConverter().toMessage(event, new MessageProperties());
+        var props = message.getMessageProperties();
+        return OutboxEvent.builder()
+                .eventId(eventId)
+                .exchange(exchangeName)
+                .routingKey(rk)
+                .contentType(props.getContentType())
+                .typeId((String) props.getHeaders().get("__TypeId__"))
+                .body(message.getBody())
+                .build();
+    }
+}
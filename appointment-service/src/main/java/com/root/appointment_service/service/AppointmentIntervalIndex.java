@@ -0,0 +1,278 @@
+package com.root.appointment_service.service;
+
+import com.root.appointment_service.domain.*;
+import com.root.appointment_service.repo.AppointmentRepository;
+import com.root.appointment_service.web.dto.AppointmentResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de las citas activas (SCHEDULED/RESCHEDULED) por médico y por paciente.
+ * Cada línea de tiempo guarda arreglos ordenados de epoch-seconds, así que los chequeos de
+ * solape y la búsqueda de huecos no tocan la base. Solo cubre citas que terminan después de
+ * {@link #horizon()}; antes de eso (o mientras carga) se debe consultar la base. El horizonte
+ * avanza con {@link #prune()}, que descarta las citas ya terminadas.
+ * <p>
+ * Las escrituras de esta instancia se aplican al commit; las de otras llegan por los eventos
+ * appointment.* ({@link #apply(AppointmentResponse)}), así que el índice puede ir un poco atrasado.
+ * Quien lo consulta responde "ocupado" desde acá y confirma un "libre" con una sola consulta a la
+ * base bajo los BookingLocks (ver {@link AvailabilityService#isFree}).
+ * <p>
+ * Las escrituras pasan todas por {@code writes}: byId y las dos líneas de tiempo de una cita cambian
+ * juntas, y una línea de tiempo que queda vacía se quita del mapa.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AppointmentIntervalIndex {
+
+  private static final List<AppointmentStatus> ACTIVE =
+      List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.RESCHEDULED);
+
+  private final AppointmentRepository repo;
+
+  @Value("${app.appointments.index.enabled:true}")
+  private boolean enabled;
+
+  private final Map<UUID, Timeline> byDoctor = new ConcurrentHashMap<>();
+  private final Map<UUID, Timeline> byPatient = new ConcurrentHashMap<>();
+  private final Map<UUID, Entry> byId = new ConcurrentHashMap<>();
+  private final ReentrantLock writes = new ReentrantLock();
+
+  private volatile Instant horizon; // null = todavía no cargado
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    if (!enabled) return;
+    Instant from = Instant.now();
+    var active = repo.findByStatusInAndEndAtAfter(ACTIVE, from);
+    active.forEach(this::apply);
+    horizon = from;
+    log.info("Índice de citas cargado: {} citas activas desde {}", active.size(), from);
+  }
+
+  /** true si el índice está cargado y {@code start} no es anterior al horizonte. */
+  public boolean covers(Instant start) {
+    var h = horizon;
+    return h != null && !start.isBefore(h);
+  }
+
+  public Instant horizon() {
+    return horizon;
+  }
+
+  /** true si alguna cita indexada del médico o del paciente solapa [start, end). */
+  public boolean overlaps(UUID doctorId, UUID patientId, Instant start, Instant end) {
+    long s = start.getEpochSecond(), e = end.getEpochSecond();
+    var d = byDoctor.get(doctorId);
+    if (d != null && d.overlaps(s, e)) return true;
+    var p = byPatient.get(patientId);
+    return p != null && p.overlaps(s, e);
+  }
+
+  /**
+   * Ocupados indexados del médico o del paciente que solapan [start, end), ordenados por inicio
+   * (la entrada de {@link SlotFinder}). Una cita puede aparecer dos veces; el buscador lo tolera.
+   */
+  public List<Instant[]> busy(UUID doctorId, UUID patientId, Instant start, Instant end) {
+    long s = start.getEpochSecond(), e = end.getEpochSecond();
+    List<long[]> out = new ArrayList<>();
+    var d = byDoctor.get(doctorId);
+    if (d != null) d.collectOverlapping(s, e, out);
+    var p = byPatient.get(patientId);
+    if (p != null) p.collectOverlapping(s, e, out);
+    out.sort(Comparator.comparingLong(i -> i[0]));
+    List<Instant[]> busy = new ArrayList<>(out.size());
+    for (var i : out) busy.add(new Instant[]{Instant.ofEpochSecond(i[0]), Instant.ofEpochSecond(i[1])});
+    return busy;
+  }
+
+  /** Cambio hecho por cualquier instancia, recibido por el evento appointment.*. */
+  public void apply(AppointmentResponse a) {
+    if (!enabled) return;
+    apply(new Entry(a.id(), a.doctorId(), a.patientId(),
+        a.startAt().getEpochSecond(), a.endAt().getEpochSecond(), ACTIVE.contains(a.status())));
+  }
+
+  /** Avanza el horizonte a ahora y descarta las citas que ya terminaron. */
+  @Scheduled(initialDelayString = "${app.appointments.index.prune-ms:600000}",
+             fixedDelayString = "${app.appointments.index.prune-ms:600000}")
+  public void prune() {
+    if (horizon == null) return;
+    Instant cutoff = Instant.now();
+    // Primero el horizonte: desde acá las consultas anteriores a cutoff van a la base
+    horizon = cutoff;
+    int removed = 0;
+    for (var e : byId.values()) {
+      if (e.end() <= cutoff.getEpochSecond()) {
+        apply(e.inactive());
+        removed++;
+      }
+    }
+    if (removed > 0) log.debug("Índice de citas: {} citas terminadas descartadas", removed);
+  }
+
+  /**
+   * Registra el estado actual de la cita. Si hay una transacción activa el cambio se aplica
+   * recién en el commit (un rollback no deja basura en el índice).
+   */
+  public void track(Appointment a) {
+    if (!enabled) return;
+    var snapshot = entryOf(a);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          apply(snapshot);
+        }
+      });
+    } else {
+      apply(snapshot);
+    }
+  }
+
+  private void apply(Appointment a) {
+    apply(new Entry(a.getId(), a.getDoctorId(), a.getPatientId(),
+        a.getStartAt().getEpochSecond(), a.getEndAt().getEpochSecond(), true));
+  }
+
+  private static Entry entryOf(Appointment a) {
+    return new Entry(a.getId(), a.getDoctorId(), a.getPatientId(),
+        a.getStartAt().getEpochSecond(), a.getEndAt().getEpochSecond(),
+        ACTIVE.contains(a.getStatus()));
+  }
+
+  private void apply(Entry e) {
+    writes.lock();
+    try {
+      var h = horizon;
+      boolean keep = e.active() && (h == null || e.end() > h.getEpochSecond());
+      var previous = keep ? byId.put(e.id(), e) : byId.remove(e.id());
+      if (previous != null) {
+        detach(byDoctor, previous.doctorId(), previous.id());
+        detach(byPatient, previous.patientId(), previous.id());
+      }
+      if (keep) {
+        byDoctor.computeIfAbsent(e.doctorId(), k -> new Timeline()).add(e.id(), e.start(), e.end());
+        byPatient.computeIfAbsent(e.patientId(), k -> new Timeline()).add(e.id(), e.start(), e.end());
+      }
+    } finally {
+      writes.unlock();
+    }
+  }
+
+  // Sin crear una línea de tiempo para borrar; si queda vacía se suelta
+  private static void detach(Map<UUID, Timeline> map, UUID key, UUID id) {
+    map.computeIfPresent(key, (k, t) -> t.remove(id) ? null : t);
+  }
+
+  private record Entry(UUID id, UUID doctorId, UUID patientId, long start, long end, boolean active) {
+    Entry inactive() {
+      return new Entry(id, doctorId, patientId, start, end, false);
+    }
+  }
+
+  /**
+   * Intervalos ordenados por inicio en arreglos primitivos; maxSpan acota la búsqueda hacia atrás.
+   * Lock de lectura/escritura en vez de monitor: los chequeos corren en paralelo y un hilo virtual
+   * que espera no fija su carrier.
+   */
+  static final class Timeline {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] starts = new long[8];
+    private long[] ends = new long[8];
+    private UUID[] ids = new UUID[8];
+    private int size;
+    private long maxSpan;
+
+    boolean overlaps(long start, long end) {
+      lock.readLock().lock();
+      try {
+        // Cualquier intervalo que solape empieza en (start - maxSpan, end)
+        int i = lowerBound(start - maxSpan);
+        for (; i < size && starts[i] < end; i++) {
+          if (ends[i] > start) return true;
+        }
+        return false;
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    void collectOverlapping(long start, long end, Collection<long[]> out) {
+      lock.readLock().lock();
+      try {
+        int i = lowerBound(start - maxSpan);
+        for (; i < size && starts[i] < end; i++) {
+          if (ends[i] > start) out.add(new long[]{starts[i], ends[i]});
+        }
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    void add(UUID id, long start, long end) {
+      lock.writeLock().lock();
+      try {
+        if (size == starts.length) {
+          int cap = size * 2;
+          starts = Arrays.copyOf(starts, cap);
+          ends = Arrays.copyOf(ends, cap);
+          ids = Arrays.copyOf(ids, cap);
+        }
+        int i = lowerBound(start);
+        System.arraycopy(starts, i, starts, i + 1, size - i);
+        System.arraycopy(ends, i, ends, i + 1, size - i);
+        System.arraycopy(ids, i, ids, i + 1, size - i);
+        starts[i] = start;
+        ends[i] = end;
+        ids[i] = id;
+        size++;
+        maxSpan = Math.max(maxSpan, end - start);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    /** Quita el intervalo de la cita; devuelve true si la línea de tiempo quedó vacía. */
+    boolean remove(UUID id) {
+      lock.writeLock().lock();
+      try {
+        for (int i = 0; i < size; i++) {
+          if (ids[i].equals(id)) {
+            System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+            System.arraycopy(ends, i + 1, ends, i, size - i - 1);
+            System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+            ids[--size] = null;
+            break;
+          }
+        }
+        return size == 0;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    private int lowerBound(long key) {
+      int lo = 0, hi = size;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (starts[mid] < key) lo = mid + 1; else hi = mid;
+      }
+      return lo;
+    }
+  }
+}
@@ -2,17 +2,31 @@ package com.root.appointment_service.service;
 
 import com.root.appointment_service.domain.*;
 import com.root.appointment_service.repo.*;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
-@RequiredArgsConstructor
 public class AvailabilityService {
 
   private final AppointmentRepository repo;
+  private final AppointmentIntervalIndex index;
+  private final RecurringSeriesService series;
+  private final Executor availabilityExecutor;
+
+  public AvailabilityService(AppointmentRepository repo,
+                             AppointmentIntervalIndex index,
+                             RecurringSeriesService series,
+                             @Qualifier("availabilityExecutor") Executor availabilityExecutor) {
+    this.repo = repo;
+    this.index = index;
+    this.series = series;
+    this.availabilityExecutor = availabilityExecutor;
+  }
 
   @Value("${app.appointments.slotMinutes:30}")
   private int defaultSlot;
@@ -20,19 +34,50 @@ public class AvailabilityService {
   private static final List<AppointmentStatus> ACTIVE =
       List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.RESCHEDULED);
 
+  /**
+   * Con el índice al día un "ocupado" se responde en memoria, sin ir a la base. Un "libre" (o una
+   * ventana fuera del índice) pasa por {@link #confirmFree}, el chequeo final que corre bajo los
+   * BookingLocks del llamador.
+   */
   public boolean isFree(UUID doctorId, UUID patientId, Instant start, Instant end) {
-    return !repo.doctorHasOverlap(doctorId, start, end, ACTIVE)
-        && !repo.patientHasOverlap(patientId, start, end, ACTIVE);
+    if (index.covers(start) && index.overlaps(doctorId, patientId, start, end)) return false;
+    return confirmFree(doctorId, patientId, start, end);
   }
 
-  public Instant[] nextAvailable(UUID doctorId, UUID patientId, Instant preferredStart, int durationMinutes, int jumps){
-    Instant start = preferredStart; long step = Duration.ofMinutes(defaultSlot).toSeconds();
-    for(int i=0;i<Math.max(1,jumps);i++){
-      Instant end = start.plus(Duration.ofMinutes(durationMinutes));
-      if(isFree(doctorId, patientId, start, end)) return new Instant[]{start,end};
-      start = start.plusSeconds(step);
+  // Guardia final: citas del médico o del paciente en una sola consulta, más las series
+  private boolean confirmFree(UUID doctorId, UUID patientId, Instant start, Instant end) {
+    return !repo.hasOverlap(doctorId, patientId, start, end, ACTIVE)
+        && !series.overlaps(doctorId, patientId, start, end);
+  }
+
+  /**
+   * Primer slot libre (médico y paciente) a partir de preferredStart, probando como máximo
+   * {@code jumps} posiciones de la grilla; vacío si no hay hueco. Con el índice al día los
+   * ocupados salen de sus líneas de tiempo (más las ocurrencias de series) y el hueco elegido se
+   * confirma con una consulta; si la base lo desmiente, o fuera del índice, los ocupados de la
+   * ventana se leen de la base.
+   */
+  public Optional<Instant[]> nextAvailable(UUID doctorId, UUID patientId, Instant preferredStart, int durationMinutes, int jumps){
+    Duration step = Duration.ofMinutes(defaultSlot);
+    Duration duration = Duration.ofMinutes(durationMinutes);
+    Instant until = preferredStart.plus(step.multipliedBy(Math.max(1, jumps) - 1)).plus(duration);
+    var occurrences = series.expand(List.of(doctorId), List.of(patientId), preferredStart, until);
+
+    if (index.covers(preferredStart)) {
+      List<Instant[]> busy = new ArrayList<>(index.busy(doctorId, patientId, preferredStart, until));
+      occurrences.forEach(a -> busy.add(new Instant[]{a.getStartAt(), a.getEndAt()}));
+      busy.sort(Comparator.comparing(b -> b[0]));
+      var gap = SlotFinder.firstGap(busy, preferredStart, until, duration, step);
+      // Las series ya están en busy: alcanza con confirmar las citas
+      if (gap.isEmpty() || !repo.hasOverlap(doctorId, patientId, gap.get()[0], gap.get()[1], ACTIVE)) return gap;
     }
-    return new Instant[]{start, start.plus(Duration.ofMinutes(durationMinutes))};
+
+    List<Instant[]> busy = new ArrayList<>();
+    repo.findBusy(doctorId, patientId, preferredStart, until, ACTIVE)
+        .forEach(a -> busy.add(new Instant[]{a.getStartAt(), a.getEndAt()}));
+    occurrences.forEach(a -> busy.add(new Instant[]{a.getStartAt(), a.getEndAt()}));
+    busy.sort(Comparator.comparing(b -> b[0]));
+    return SlotFinder.firstGap(busy, preferredStart, until, duration, step);
   }
 
   // 🔽 NUEVO: disponibilidad diaria (lista de slots libres + reservas existentes)
@@ -47,9 +92,79 @@ public class AvailabilityService {
     Instant dayStart = date.atStartOfDay(zone).toInstant();
     Instant dayEnd = date.plusDays(1).atStartOfDay(zone).toInstant();
 
-    // Reservas del día (doctor)
-    var reserved = repo.findByDoctorIdAndStartAtBetweenOrderByStartAt(doctorId, dayStart, dayEnd);
+    // Reservas del día (doctor), incluidas las ocurrencias de sus series
+    var reserved = withSeries(repo.findByDoctorIdAndStartAtBetweenOrderByStartAt(doctorId, dayStart, dayEnd),
+        List.of(doctorId), List.of(), dayStart, dayEnd);
+    return new DailyAvailability(reserved, freeSlots(date, zone, slotMinutes, workStart, workEnd, durationMinutes, reserved));
+  }
+
+  /**
+   * Disponibilidad de varios médicos en un rango de días, ordenada por médico y día. Las reservas
+   * activas de todos los médicos se leen con una sola consulta; cada médico es una tarea en el
+   * pool acotado {@code availabilityExecutor} que recorre sus días en orden, así que una petición
+   * encola a lo sumo un trabajo por médico. La respuesta se arma completa en memoria (no se
+   * transmite por partes): su tamaño lo acotan los topes de médicos y días del llamador.
+   */
+  public List<DoctorDay> getRangeAvailability(Collection<UUID> doctorIds,
+                                              LocalDate from,
+                                              LocalDate to,
+                                              String zoneId,
+                                              int slotMinutes,
+                                              LocalTime workStart,
+                                              LocalTime workEnd,
+                                              int durationMinutes) {
+    ZoneId zone = ZoneId.of(zoneId == null || zoneId.isBlank() ? "America/Guayaquil" : zoneId);
+    Instant rangeStart = from.atStartOfDay(zone).toInstant();
+    Instant rangeEnd = to.plusDays(1).atStartOfDay(zone).toInstant();
+
+    Map<UUID, List<Appointment>> byDoctor = new HashMap<>();
+    var reservedInRange = withSeries(repo.findActiveForDoctors(doctorIds, rangeStart, rangeEnd, ACTIVE),
+        doctorIds, List.of(), rangeStart, rangeEnd);
+    for (var a : reservedInRange) {
+      byDoctor.computeIfAbsent(a.getDoctorId(), k -> new ArrayList<>()).add(a);
+    }
+
+    List<CompletableFuture<List<DoctorDay>>> tasks = new ArrayList<>(doctorIds.size());
+    for (UUID doctorId : doctorIds) {
+      var doctorReserved = byDoctor.getOrDefault(doctorId, List.of());
+      tasks.add(CompletableFuture.supplyAsync(() -> {
+        List<DoctorDay> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+          Instant dayStart = date.atStartOfDay(zone).toInstant();
+          Instant dayEnd = date.plusDays(1).atStartOfDay(zone).toInstant();
+          var reserved = doctorReserved.stream()
+              .filter(a -> !a.getStartAt().isBefore(dayStart) && a.getStartAt().isBefore(dayEnd))
+              .toList();
+          // Para los huecos cuenta también una cita que viene del día anterior
+          var busy = doctorReserved.stream()
+              .filter(a -> a.getStartAt().isBefore(dayEnd) && a.getEndAt().isAfter(dayStart))
+              .toList();
+          var slots = freeSlots(date, zone, slotMinutes, workStart, workEnd, durationMinutes, busy);
+          days.add(new DoctorDay(doctorId, date, new DailyAvailability(reserved, slots)));
+        }
+        return days;
+      }, availabilityExecutor));
+    }
+    List<DoctorDay> result = new ArrayList<>();
+    for (var task : tasks) result.addAll(task.join());
+    return result;
+  }
 
+  /** Suma a las reservas las ocurrencias de series de la ventana, manteniendo el orden por inicio. */
+  private List<Appointment> withSeries(List<Appointment> reserved, Collection<UUID> doctorIds,
+                                       Collection<UUID> patientIds, Instant from, Instant to) {
+    var occurrences = series.expand(doctorIds, patientIds, from, to);
+    if (occurrences.isEmpty()) return reserved;
+    List<Appointment> all = new ArrayList<>(reserved.size() + occurrences.size());
+    all.addAll(reserved);
+    all.addAll(occurrences);
+    all.sort(Comparator.comparing(Appointment::getStartAt));
+    return all;
+  }
+
+  private List<Instant[]> freeSlots(LocalDate date, ZoneId zone, int slotMinutes,
+                                    LocalTime workStart, LocalTime workEnd, int durationMinutes,
+                                    List<Appointment> reserved) {
     // Construir slots candidatos
     List<Instant[]> slots = new ArrayList<>();
     var first = date.atTime(workStart).atZone(zone).toInstant();
@@ -63,8 +178,7 @@ public class AvailabilityService {
         slots.add(new Instant[]{s, e});
       }
     }
-
-    return new DailyAvailability(reserved, slots);
+    return slots;
   }
 
   private boolean overlapsAny(Instant start, Instant end, List<Appointment> reserved) {
@@ -75,4 +189,6 @@ public class AvailabilityService {
   }
 
   public record DailyAvailability(List<Appointment> reserved, List<Instant[]> available) {}
+
+  public record DoctorDay(UUID doctorId, LocalDate date, DailyAvailability day) {}
 }
\ No newline at end of file
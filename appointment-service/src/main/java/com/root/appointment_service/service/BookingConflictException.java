@@ -0,0 +1,8 @@
+package com.root.appointment_service.service;
+
+/** El horario pedido choca con otra reserva (o con una reserva concurrente en curso): HTTP 409. */
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,137 @@
+package com.root.appointment_service.service;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Serializa las reservas que tocan al mismo médico o paciente y deja correr en paralelo al resto.
+ * Dentro de la instancia usa un lock exacto por id (creado al pedirlo y descartado cuando nadie lo
+ * usa); entre instancias, advisory locks de Postgres a nivel de transacción, todos en una consulta.
+ * Ambos duran hasta el fin de la transacción, así que el chequeo de solape y el insert quedan
+ * cubiertos hasta el commit. Solo compiten reservas del mismo médico o paciente: si no se consiguen
+ * dentro de {@code lock-wait-ms} la reserva falla con {@link BookingConflictException} (409).
+ */
+@Component
+public class BookingLocks {
+
+  private static final long ADVISORY_RETRY_MS = 10;
+
+  private final EntityManager em;
+  private final ConcurrentHashMap<UUID, LockRef> locks = new ConcurrentHashMap<>();
+  private final long waitNanos;
+  private final boolean advisory;
+
+  public BookingLocks(EntityManager em,
+                      @Value("${app.booking.lock-wait-ms:250}") long waitMs,
+                      @Value("${app.booking.advisory-locks:true}") boolean advisory) {
+    this.em = em;
+    this.waitNanos = TimeUnit.MILLISECONDS.toNanos(waitMs);
+    this.advisory = advisory;
+  }
+
+  /** Toma los locks de esos ids (médicos y/o pacientes) hasta que termine la transacción en curso. */
+  public void lock(Collection<UUID> ids) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive())
+      throw new IllegalStateException("BookingLocks requiere una transacción activa");
+    long deadline = System.nanoTime() + waitNanos;
+
+    // Orden fijo (por id) para que dos reservas nunca se esperen en ciclo
+    var order = new TreeSet<>(ids);
+    List<UUID> held = new ArrayList<>(order.size());
+    try {
+      for (UUID id : order) {
+        var ref = acquireRef(id);
+        if (!ref.lock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+          releaseRef(id);
+          throw busy();
+        }
+        held.add(id);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      unlock(held);
+      throw busy();
+    } catch (RuntimeException e) {
+      unlock(held);
+      throw e;
+    }
+    // afterCompletion corre en el mismo hilo del commit/rollback, el dueño de los locks
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        unlock(held);
+      }
+    });
+
+    if (advisory) advisoryLock(order.stream().map(BookingLocks::key).collect(Collectors.toCollection(TreeSet::new)),
+        deadline);
+  }
+
+  /**
+   * pg_try_advisory_xact_lock no espera: una sola consulta intenta todas las claves y devuelve las
+   * obtenidas; las que falten se reintentan hasta el plazo. Se liberan solas al terminar la transacción.
+   */
+  private void advisoryLock(Set<Long> keys, long deadline) {
+    var missing = new TreeSet<>(keys);
+    while (true) {
+      @SuppressWarnings("unchecked")
+      List<Number> got = em.createNativeQuery(
+              "select k from unnest(cast(:keys as bigint[])) k where pg_try_advisory_xact_lock(k)")
+          .setParameter("keys", missing.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}")))
+          .getResultList();
+      got.forEach(k -> missing.remove(k.longValue()));
+      if (missing.isEmpty()) return;
+      if (System.nanoTime() - deadline >= 0) throw busy();
+      try {
+        Thread.sleep(ADVISORY_RETRY_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw busy();
+      }
+    }
+  }
+
+  private LockRef acquireRef(UUID id) {
+    return locks.compute(id, (k, ref) -> {
+      if (ref == null) ref = new LockRef();
+      ref.users++;
+      return ref;
+    });
+  }
+
+  // El último en soltarlo lo saca del mapa; compute serializa esto con acquireRef sobre la misma clave
+  private void releaseRef(UUID id) {
+    locks.computeIfPresent(id, (k, ref) -> --ref.users == 0 ? null : ref);
+  }
+
+  private void unlock(List<UUID> held) {
+    for (int i = held.size() - 1; i >= 0; i--) {
+      UUID id = held.get(i);
+      locks.get(id).lock.unlock();
+      releaseRef(id);
+    }
+  }
+
+  private static long key(UUID id) {
+    return id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+  }
+
+  private static BookingConflictException busy() {
+    return new BookingConflictException("Hay otra reserva en curso para el mismo médico o paciente; intente de nuevo");
+  }
+
+  // users: hilos que lo tienen o lo esperan; solo se modifica dentro de compute del mapa
+  private static final class LockRef {
+    final ReentrantLock lock = new ReentrantLock();
+    int users;
+  }
+}
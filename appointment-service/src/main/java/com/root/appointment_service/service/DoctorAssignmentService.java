@@ -0,0 +1,98 @@
+package com.root.appointment_service.service;
+
+import com.root.appointment_service.domain.*;
+import com.root.appointment_service.repo.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Elige médico cuando la reserva no trae doctorId: el que tenga el slot libre más cercano a la
+ * hora pedida y, a igualdad, el de menor carga en ese día. Todas las reservas de los candidatos
+ * (y del paciente) se leen con una sola consulta, más las ocurrencias de sus series en la ventana.
+ */
+@Service
+@RequiredArgsConstructor
+public class DoctorAssignmentService {
+
+  private static final List<AppointmentStatus> ACTIVE =
+      List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.RESCHEDULED);
+
+  private final AppointmentRepository repo;
+  private final RecurringSeriesService series;
+
+  @Value("${app.appointments.slotMinutes:30}")
+  private int defaultSlot;
+
+  /**
+   * @param candidates médicos de la especialidad, en orden de preferencia (desempata al final)
+   * @param jumps      cuántas posiciones de la grilla se buscan a partir de preferredStart
+   */
+  public UUID pick(List<UUID> candidates, UUID patientId, Instant preferredStart, int durationMinutes,
+                   int jumps, ZoneId zone) {
+    if (candidates.size() == 1) return candidates.get(0);
+
+    Duration step = Duration.ofMinutes(defaultSlot);
+    Duration duration = Duration.ofMinutes(durationMinutes);
+    Instant until = preferredStart.plus(step.multipliedBy(Math.max(1, jumps) - 1)).plus(duration);
+
+    LocalDate day = preferredStart.atZone(zone).toLocalDate();
+    Instant dayStart = day.atStartOfDay(zone).toInstant();
+    Instant dayEnd = day.plusDays(1).atStartOfDay(zone).toInstant();
+    Instant from = dayStart.isBefore(preferredStart) ? dayStart : preferredStart;
+    Instant to = dayEnd.isAfter(until) ? dayEnd : until;
+
+    Map<UUID, List<Instant[]>> busyByDoctor = new HashMap<>();
+    Map<UUID, Integer> loadByDoctor = new HashMap<>();
+    List<Instant[]> patientBusy = new ArrayList<>();
+    var reserved = new ArrayList<>(repo.findActiveForDoctorsOrPatient(candidates, patientId, from, to, ACTIVE));
+    var occurrences = series.expand(candidates, List.of(patientId), from, to);
+    if (!occurrences.isEmpty()) {
+      reserved.addAll(occurrences);
+      reserved.sort(Comparator.comparing(Appointment::getStartAt));
+    }
+    for (var a : reserved) {
+      var interval = new Instant[]{a.getStartAt(), a.getEndAt()};
+      if (a.getPatientId().equals(patientId)) patientBusy.add(interval);
+      if (candidates.contains(a.getDoctorId())) {
+        busyByDoctor.computeIfAbsent(a.getDoctorId(), k -> new ArrayList<>()).add(interval);
+        if (!a.getStartAt().isBefore(dayStart) && a.getStartAt().isBefore(dayEnd))
+          loadByDoctor.merge(a.getDoctorId(), 1, Integer::sum);
+      }
+    }
+
+    UUID best = candidates.get(0);
+    long bestStart = Long.MAX_VALUE;
+    int bestLoad = Integer.MAX_VALUE;
+    for (UUID doctorId : candidates) {
+      var busy = merge(busyByDoctor.getOrDefault(doctorId, List.of()), patientBusy);
+      long start = SlotFinder.firstGap(busy, preferredStart, until, duration, step)
+          .map(slot -> slot[0].getEpochSecond())
+          .orElse(Long.MAX_VALUE);
+      int load = loadByDoctor.getOrDefault(doctorId, 0);
+      if (start < bestStart || (start == bestStart && load < bestLoad)) {
+        best = doctorId;
+        bestStart = start;
+        bestLoad = load;
+      }
+    }
+    return best;
+  }
+
+  /** Mezcla dos listas ordenadas por inicio en una sola lista ordenada. */
+  private static List<Instant[]> merge(List<Instant[]> a, List<Instant[]> b) {
+    if (b.isEmpty()) return a;
+    if (a.isEmpty()) return b;
+    List<Instant[]> out = new ArrayList<>(a.size() + b.size());
+    int i = 0, j = 0;
+    while (i < a.size() && j < b.size()) {
+      out.add(a.get(i)[0].isAfter(b.get(j)[0]) ? b.get(j++) : a.get(i++));
+    }
+    while (i < a.size()) out.add(a.get(i++));
+    while (j < b.size()) out.add(b.get(j++));
+    return out;
+  }
+}
@@ -0,0 +1,68 @@
+package com.root.appointment_service.service;
+
+import com.root.appointment_service.domain.OutboxEvent;
+import com.root.appointment_service.repo.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Vacía el outbox en lotes: publica cada lote en un canal con publisher confirms, espera los
+ * confirms y recién entonces borra las filas. Si el broker falla, la transacción se revierte y
+ * el lote se reintenta en la siguiente pasada (entrega al-menos-una-vez).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxRepository outbox;
+    private final RabbitTemplate rabbit;
+    private final TransactionTemplate tx;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+    @Value("${app.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-ms:500}")
+    public void drain() {
+        try {
+            Integer published;
+            do {
+                published = tx.execute(status -> publishBatch());
+            } while (published != null && published == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox: no se pudo publicar el lote, se reintenta: {}", e.getMessage());
+        }
+    }
+
+    private int publishBatch() {
+        var batch = outbox.lockBatch(batchSize);
+        if (batch.isEmpty()) return 0;
+
+        rabbit.invoke(ops -> {
+            for (OutboxEvent e : batch) {
+                ops.send(e.getExchange(), e.getRoutingKey(), toMessage(e));
+            }
+            ops.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+        outbox.deleteAllInBatch(batch);
+        return batch.size();
+    }
+
+    private static Message toMessage(OutboxEvent e) {
+        var props = new MessageProperties();
+        if (e.getEventId() != null) props.setMessageId(e.getEventId().toString());
+        props.setContentType(e.getContentType());
+        props.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        if (e.getTypeId() != null) props.setHeader("__TypeId__", e.getTypeId());
+        return new Message(e.getBody(), props);
+    }
+}
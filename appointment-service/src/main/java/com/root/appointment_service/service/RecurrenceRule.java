@@ -0,0 +1,72 @@
+package com.root.appointment_service.service;
+
+import com.root.appointment_service.domain.AppointmentSeries;
+
+import java.util.*;
+
+/**
+ * Regla de una serie en epoch-seconds: la ocurrencia k (0..last) es
+ * [first + k * period, first + k * period + duration). El período avanza en tiempo absoluto
+ * (días de 24 h), igual que la zona por defecto, que no tiene horario de verano.
+ */
+record RecurrenceRule(long first, long period, long duration, long last) {
+
+  static RecurrenceRule of(AppointmentSeries s) {
+    return new RecurrenceRule(s.getFirstStart().getEpochSecond(), s.getIntervalDays() * 86_400L,
+        s.getDurationMinutes() * 60L, s.getOccurrences() - 1L);
+  }
+
+  long lastEnd() {
+    return first + last * period + duration;
+  }
+
+  /** Ocurrencia k más temprana que termina después de {@code s} (puede pasarse de {@link #last}). */
+  private long firstEndingAfter(long s) {
+    return Math.max(0, Math.floorDiv(s - duration - first, period) + 1);
+  }
+
+  /** ¿Alguna ocurrencia solapa [s, e)? O(1): solo puede ser la primera que termina después de s. */
+  boolean overlaps(long s, long e) {
+    long k = firstEndingAfter(s);
+    return k <= last && first + k * period < e;
+  }
+
+  /**
+   * ¿Alguna ocurrencia de esta regla solapa alguna de {@code other}? El patrón relativo se repite
+   * cada mcm(períodos), así que alcanza con recorrer a lo sumo 2 * other.period / mcd ocurrencias
+   * desde el inicio de la ventana común (el doble cubre el borde en que la otra aún no empezó).
+   */
+  boolean overlaps(RecurrenceRule other) {
+    long from = Math.max(first, other.first - duration);
+    long to = Math.min(lastEnd(), other.lastEnd());
+    if (from >= to) return false;
+    long bound = 2 * (other.period / gcd(period, other.period)) + 2;
+    long k = firstEndingAfter(from);
+    for (long n = 0; n < bound && k <= last; n++, k++) {
+      long s = first + k * period;
+      if (s >= to) return false;
+      if (other.overlaps(s, s + duration)) return true;
+    }
+    return false;
+  }
+
+  /** Expansión perezosa: solo las ocurrencias que solapan [from, to), como pares {inicio, fin}. */
+  List<long[]> between(long from, long to) {
+    List<long[]> out = new ArrayList<>();
+    for (long k = firstEndingAfter(from); k <= last; k++) {
+      long s = first + k * period;
+      if (s >= to) break;
+      out.add(new long[]{s, s + duration});
+    }
+    return out;
+  }
+
+  private static long gcd(long a, long b) {
+    while (b != 0) {
+      long t = a % b;
+      a = b;
+      b = t;
+    }
+    return a;
+  }
+}
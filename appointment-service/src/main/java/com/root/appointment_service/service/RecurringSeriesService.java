@@ -0,0 +1,148 @@
+package com.root.appointment_service.service;
+
+import com.root.appointment_service.domain.*;
+import com.root.appointment_service.repo.AppointmentRepository;
+import com.root.appointment_service.repo.AppointmentSeriesRepository;
+import com.root.appointment_service.service.remote.DoctorClient;
+import com.root.appointment_service.service.remote.PatientClient;
+import com.root.appointment_service.web.dto.*;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Series de citas recurrentes. Se guardan como regla y solo se expanden dentro de la ventana
+ * consultada; los solapes contra citas sueltas y contra otras series se resuelven sobre la regla
+ * ({@link RecurrenceRule}) sin materializar ocurrencias.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RecurringSeriesService {
+
+    private static final List<AppointmentStatus> ACTIVE =
+            List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.RESCHEDULED);
+    // "in ()" no es SQL válido: un id que no existe reemplaza a la lista vacía
+    private static final List<UUID> NONE = List.of(new UUID(0, 0));
+    private static final Duration MAX_WINDOW = Duration.ofDays(366);
+
+    private final AppointmentSeriesRepository repo;
+    private final AppointmentRepository appointments;
+    private final PatientClient patients;
+    private final DoctorClient doctors;
+    private final BookingLocks locks;
+
+    public SeriesResponse create(@Valid CreateSeriesRequest req) {
+        RemoteLookups.await(
+                RemoteLookups.then(patients.getPatientAsync(req.patientId()), p -> {
+                    if (p == null) throw new IllegalArgumentException("Paciente no existe");
+                    return null;
+                }),
+                RemoteLookups.then(doctors.getDoctorAsync(req.doctorId()), d -> {
+                    if (d == null || !String.valueOf(d.get("specialty")).equals(req.specialty().name()))
+                        throw new IllegalArgumentException("Médico no coincide con especialidad");
+                    return null;
+                }));
+
+        var s = AppointmentSeries.builder()
+                .patientId(req.patientId())
+                .doctorId(req.doctorId())
+                .specialty(req.specialty())
+                .firstStart(req.firstStart())
+                .durationMinutes(req.durationMinutes())
+                .intervalDays(req.intervalDays())
+                .occurrences(req.occurrences())
+                .status(AppointmentStatus.SCHEDULED)
+                .notes(req.notes())
+                .build();
+        var rule = RecurrenceRule.of(s);
+        s.setLastEnd(Instant.ofEpochSecond(rule.lastEnd()));
+
+        locks.lock(List.of(s.getDoctorId(), s.getPatientId()));
+        // Citas sueltas del médico o del paciente en todo el rango: una consulta y un chequeo O(1) por cita
+        for (var a : appointments.findActiveForDoctorsOrPatients(List.of(s.getDoctorId()), List.of(s.getPatientId()),
+                s.getFirstStart(), s.getLastEnd(), ACTIVE)) {
+            if (rule.overlaps(a.getStartAt().getEpochSecond(), a.getEndAt().getEpochSecond()))
+                throw new BookingConflictException("La serie solapa con la cita del " + a.getStartAt());
+        }
+        for (var other : repo.findActive(List.of(s.getDoctorId()), List.of(s.getPatientId()),
+                s.getFirstStart(), s.getLastEnd(), AppointmentStatus.SCHEDULED)) {
+            if (rule.overlaps(RecurrenceRule.of(other)))
+                throw new BookingConflictException("La serie solapa con otra serie (" + other.getId() + ")");
+        }
+        return toResponse(repo.save(s));
+    }
+
+    @Transactional(readOnly = true)
+    public SeriesResponse get(UUID id) {
+        return toResponse(find(id));
+    }
+
+    public void cancel(UUID id) {
+        find(id).setStatus(AppointmentStatus.CANCELLED);
+    }
+
+    /** Ocurrencias de la serie dentro de [from, to); la ventana se limita a un año. */
+    @Transactional(readOnly = true)
+    public List<AvailabilitySlot> occurrences(UUID id, Instant from, Instant to) {
+        if (!to.isAfter(from) || Duration.between(from, to).compareTo(MAX_WINDOW) > 0)
+            throw new IllegalArgumentException("Ventana inválida (máximo " + MAX_WINDOW.toDays() + " días)");
+        return RecurrenceRule.of(find(id)).between(from.getEpochSecond(), to.getEpochSecond()).stream()
+                .map(o -> new AvailabilitySlot(Instant.ofEpochSecond(o[0]), Instant.ofEpochSecond(o[1])))
+                .toList();
+    }
+
+    /** ¿Alguna serie vigente del médico o del paciente ocupa parte de [start, end)? */
+    @Transactional(readOnly = true)
+    public boolean overlaps(UUID doctorId, UUID patientId, Instant start, Instant end) {
+        long s = start.getEpochSecond(), e = end.getEpochSecond();
+        for (var series : repo.findActive(List.of(doctorId), List.of(patientId), start, end, AppointmentStatus.SCHEDULED)) {
+            if (RecurrenceRule.of(series).overlaps(s, e)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ocurrencias de las series vigentes de esos médicos o pacientes dentro de [from, to), como citas
+     * transitorias (id = id de la serie) para sumarlas a las reservas. Ordenadas por inicio.
+     */
+    @Transactional(readOnly = true)
+    public List<Appointment> expand(Collection<UUID> doctorIds, Collection<UUID> patientIds, Instant from, Instant to) {
+        List<Appointment> out = new ArrayList<>();
+        for (var series : repo.findActive(orNone(doctorIds), orNone(patientIds), from, to, AppointmentStatus.SCHEDULED)) {
+            for (long[] o : RecurrenceRule.of(series).between(from.getEpochSecond(), to.getEpochSecond())) {
+                out.add(Appointment.builder()
+                        .id(series.getId())
+                        .patientId(series.getPatientId())
+                        .doctorId(series.getDoctorId())
+                        .specialty(series.getSpecialty())
+                        .startAt(Instant.ofEpochSecond(o[0]))
+                        .endAt(Instant.ofEpochSecond(o[1]))
+                        .status(AppointmentStatus.SCHEDULED)
+                        .notes(series.getNotes())
+                        .build());
+            }
+        }
+        out.sort(Comparator.comparing(Appointment::getStartAt));
+        return out;
+    }
+
+    private AppointmentSeries find(UUID id) {
+        return repo.findById(id).orElseThrow(() -> new EntityNotFoundException("Serie no existe"));
+    }
+
+    private static Collection<UUID> orNone(Collection<UUID> ids) {
+        return ids.isEmpty() ? NONE : ids;
+    }
+
+    private static SeriesResponse toResponse(AppointmentSeries s) {
+        return new SeriesResponse(s.getId(), s.getPatientId(), s.getDoctorId(), s.getSpecialty(),
+                s.getFirstStart(), s.getDurationMinutes(), s.getIntervalDays(), s.getOccurrences(),
+                s.getLastEnd(), s.getStatus(), s.getNotes());
+    }
+}
@@ -0,0 +1,72 @@
+package com.root.appointment_service.service;
+
+import com.root.appointment_service.domain.*;
+import com.root.appointment_service.repo.*;
+import com.root.appointment_service.web.dto.AppointmentResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Emite appointment.reminder para las citas activas que empiezan dentro de {@code lead}.
+ * Cada pasada revisa toda la ventana [ahora, ahora + lead) y toma solo las citas sin
+ * {@code reminderSentAt}, en lotes: los eventos del lote van al outbox y la marca se pone en la
+ * misma transacción, así que una cita creada o reprogramada dentro de la ventana recibe su
+ * recordatorio en la pasada siguiente y un reinicio no duplica envíos.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReminderScheduler {
+
+    private static final List<AppointmentStatus> ACTIVE =
+            List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.RESCHEDULED);
+
+    private final AppointmentRepository repo;
+    private final AppointmentEventPublisher events;
+    private final TransactionTemplate tx;
+
+    @Value("${app.reminders.enabled:true}")
+    private boolean enabled;
+    @Value("${app.reminders.lead:24h}")
+    private Duration lead;
+    @Value("${app.reminders.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.reminders.poll-ms:60000}")
+    public void run() {
+        if (!enabled) return;
+        Instant now = Instant.now();
+        Instant horizon = now.plus(lead);
+        int total = 0;
+        try {
+            Integer sent;
+            do {
+                sent = tx.execute(status -> processBatch(now, horizon));
+                total += sent == null ? 0 : sent;
+            } while (sent != null && sent == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Recordatorios: fallo en el lote, se reintenta en la próxima pasada: {}", e.getMessage());
+        }
+        if (total > 0) log.info("Recordatorios emitidos: {} (hasta {})", total, horizon);
+    }
+
+    /** Un lote de citas pendientes: outbox + marca en la misma transacción. Devuelve cuántas tomó. */
+    private int processBatch(Instant now, Instant horizon) {
+        var due = repo.lockDueReminders(ACTIVE, now, horizon, Limit.of(batchSize));
+        if (due.isEmpty()) return 0;
+        for (var a : due) {
+            events.reminder(new AppointmentResponse(a.getId(), a.getPatientId(), a.getDoctorId(), a.getSpecialty(),
+                    a.getStartAt(), a.getEndAt(), a.getStatus(), a.getNotes(), false));
+        }
+        repo.markReminderSent(due.stream().map(Appointment::getId).toList(), now);
+        return due.size();
+    }
+}
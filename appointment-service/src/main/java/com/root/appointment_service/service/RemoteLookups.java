@@ -0,0 +1,60 @@
+package com.root.appointment_service.service;
+
+import com.root.clinic_common.http.RemoteUnavailableException;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Espera búsquedas remotas lanzadas en paralelo. La primera que falle (o venza su plazo) cancela
+ * a la otra y se propaga en el acto, sin esperar a la más lenta. Las validaciones se encadenan con
+ * {@link #then} para que la cancelación llegue al futuro de origen: la búsqueda por especialidad
+ * deja de correr (o no arranca); las búsquedas por id comparten lote con otras peticiones, así que
+ * solo se desenganchan de él.
+ */
+final class RemoteLookups {
+
+  private RemoteLookups() {
+  }
+
+  /** Espera {@code first} y {@code second}; devuelve el valor de {@code second}. */
+  static <T> T await(CompletableFuture<?> first, CompletableFuture<T> second) {
+    var done = new CompletableFuture<Void>();
+    for (var f : List.of(first, second)) {
+      f.whenComplete((v, e) -> {
+        if (e != null) done.completeExceptionally(e);
+      });
+    }
+    CompletableFuture.allOf(first, second).whenComplete((v, e) -> done.complete(null));
+    try {
+      done.join();
+      return second.join();
+    } catch (CompletionException | CancellationException e) {
+      first.cancel(true);
+      second.cancel(true);
+      throw unwrap(e);
+    }
+  }
+
+  /** {@code source.thenApply(fn)}, pero cancelar el resultado cancela también {@code source}. */
+  static <S, T> CompletableFuture<T> then(CompletableFuture<S> source, Function<? super S, ? extends T> fn) {
+    var stage = source.<T>thenApply(fn);
+    stage.whenComplete((v, e) -> {
+      if (e instanceof CancellationException) source.cancel(true);
+    });
+    return stage;
+  }
+
+  private static RuntimeException unwrap(RuntimeException e) {
+    Throwable cause = e;
+    while (cause instanceof CompletionException && cause.getCause() != null) cause = cause.getCause();
+    if (cause instanceof TimeoutException)
+      return new RemoteUnavailableException("Servicio remoto sin respuesta dentro del plazo");
+    if (cause instanceof RuntimeException r) return r;
+    return new IllegalStateException(cause);
+  }
+}
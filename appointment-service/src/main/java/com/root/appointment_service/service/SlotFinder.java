@@ -0,0 +1,41 @@
+package com.root.appointment_service.service;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Búsqueda de huecos sobre una lista de intervalos ocupados ordenada por inicio.
+ * Los candidatos se alinean a la grilla {@code from + k * step}, igual que el sondeo por slots.
+ */
+public final class SlotFinder {
+
+  private SlotFinder() {
+  }
+
+  /**
+   * Primer hueco [start, start + duration) con start en la grilla, sin solapar ningún ocupado
+   * y que termine a más tardar en {@code until}. Recorre {@code busy} una sola vez.
+   */
+  public static Optional<Instant[]> firstGap(List<Instant[]> busy, Instant from, Instant until,
+                                             Duration duration, Duration step) {
+    long stepSec = Math.max(1, step.toSeconds());
+    long dur = duration.toSeconds();
+    long origin = from.getEpochSecond();
+    long candidate = origin;
+
+    for (var b : busy) {
+      long bs = b[0].getEpochSecond(), be = b[1].getEpochSecond();
+      if (be <= candidate) continue;            // ya quedó atrás
+      if (bs >= candidate + dur) break;         // el hueco alcanza antes de este ocupado
+      // Solapa: saltar al primer slot de la grilla que empiece después de que termine
+      candidate = origin + ceilDiv(be - origin, stepSec) * stepSec;
+      if (candidate + dur > until.getEpochSecond()) return Optional.empty();
+    }
+    if (candidate + dur > until.getEpochSecond()) return Optional.empty();
+    return Optional.of(new Instant[]{Instant.ofEpochSecond(candidate), Instant.ofEpochSecond(candidate + dur)});
+  }
+
+  private static long ceilDiv(long x, long y) {
+    return -Math.floorDiv(-x, y);
+  }
+}
@@ -1,44 +1,177 @@
 package com.root.appointment_service.service.remote;
 
 import com.root.appointment_service.domain.*;
-import lombok.RequiredArgsConstructor;
+import com.root.clinic_common.http.RemoteUnavailableException;
+import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 @Component
+@Slf4j
 public class DoctorClient {
 
+  private static final int PAGE_SIZE = 100;
+  private static final ParameterizedTypeReference<List<Map<String, Object>>> LIST_OF_MAPS =
+      new ParameterizedTypeReference<>() {};
+
   private final RestClient rest;
+  private final DoctorDirectory directory;
+  private final RequestCoalescer<UUID, Map<String, Object>> coalescer;
+  private final Executor lookups;
+  private final int maxBatch;
+  private final long timeoutMs;
 
-  public DoctorClient(@Qualifier("doctorRestClient") RestClient rest) {
+  public DoctorClient(@Qualifier("doctorRestClient") RestClient rest, DoctorDirectory directory,
+                      @Qualifier("lookupExecutor") Executor lookups,
+                      @Value("${app.lookups.window-ms:2}") long windowMs,
+                      @Value("${app.lookups.max-batch:50}") int maxBatch,
+                      @Value("${app.lookups.timeout-ms:2000}") long timeoutMs) {
     this.rest = rest;
+    this.directory = directory;
+    this.lookups = lookups;
+    this.maxBatch = maxBatch;
+    this.timeoutMs = timeoutMs;
+    this.coalescer = new RequestCoalescer<>(this::fetch, lookups, windowMs, maxBatch);
   }
 
-  @SuppressWarnings("unchecked")
+  /** Lookup en el directorio local; solo va a doctor-service (GET ?ids= compartido) si el médico aún no está en él. */
   public Map<String, Object> getDoctor(UUID id) {
-    return rest.get().uri("/{id}", id).retrieve().body(Map.class);
+    var cached = directory.get(id);
+    if (cached != null) return cached;
+    return coalescer.get(id);
   }
 
-  /** Devuelve una lista (mínima) de médicos con la especialidad dada.
-   *  Implementación por defecto: trae la primera página y filtra localmente. */
-  @SuppressWarnings("unchecked")
+  /**
+   * Igual que {@link #getDoctor} pero sin bloquear y con plazo {@code app.lookups.timeout-ms}. Devuelve
+   * una copia del futuro del lote: cancelarla o que venza no afecta a las demás búsquedas del lote.
+   */
+  public CompletableFuture<Map<String, Object>> getDoctorAsync(UUID id) {
+    var cached = directory.get(id);
+    if (cached != null) return CompletableFuture.completedFuture(cached);
+    return coalescer.load(id).copy().orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+  }
+
+  /** Varios médicos: los que no están en el directorio se piden con GET ?ids= (de a max-batch). */
+  public Map<UUID, Map<String, Object>> getDoctors(Collection<UUID> ids) {
+    Map<UUID, Map<String, Object>> result = new HashMap<>();
+    List<UUID> missing = new ArrayList<>();
+    for (UUID id : new LinkedHashSet<>(ids)) {
+      var cached = directory.get(id);
+      if (cached != null) result.put(id, cached);
+      else missing.add(id);
+    }
+    for (int i = 0; i < missing.size(); i += maxBatch) {
+      result.putAll(fetch(missing.subList(i, Math.min(i + maxBatch, missing.size()))));
+    }
+    return result;
+  }
+
+  private Map<UUID, Map<String, Object>> fetch(List<UUID> ids) {
+    List<Map<String, Object>> body = rest.get()
+        .uri(uri -> uri.queryParam("ids", ids).build())
+        .retrieve().body(LIST_OF_MAPS);
+    Map<UUID, Map<String, Object>> found = new HashMap<>();
+    if (body == null) return found;
+    for (var d : body) {
+      directory.put(d);
+      found.put(UUID.fromString(String.valueOf(d.get("id"))), d);
+    }
+    return found;
+  }
+
+  /** Devuelve los médicos con la especialidad dada desde el directorio local.
+   *  Si el directorio todavía no se pudo cargar, recorre GET /search (proyección id/nombre/especialidad). */
   public List<Map<String, Object>> findBySpecialty(Specialty sp) {
-    // Si tienes un endpoint /search, descomenta esto:
-    // Map page = rest.get()
-    //     .uri(uri -> uri.path("/search").queryParam("specialty", sp.name()).build())
-    //     .retrieve().body(Map.class);
+    return findBySpecialty(sp, () -> false);
+  }
+
+  private List<Map<String, Object>> findBySpecialty(Specialty sp, BooleanSupplier abandoned) {
+    if (directory.isLoaded()) return directory.findBySpecialty(sp);
+    try {
+      return searchBySpecialty(sp, abandoned);
+    } catch (RemoteUnavailableException e) {
+      // doctor-service caído: lo que el directorio haya juntado por eventos y lookups
+      var partial = directory.findBySpecialty(sp);
+      if (partial.isEmpty()) throw e;
+      return partial;
+    }
+  }
 
-    Map page = rest.get().retrieve().body(Map.class); // GET /api/v1/doctors (paginado)
-    if (page == null) return List.of();
+  @SuppressWarnings("unchecked")
+  private List<Map<String, Object>> searchBySpecialty(Specialty sp, BooleanSupplier abandoned) {
+    List<Map<String, Object>> result = new ArrayList<>();
+    String cursor = null;
+    do {
+      if (abandoned.getAsBoolean()) break; // nadie espera el resultado: no se piden más páginas
+      String after = cursor;
+      Map page = rest.get()
+          .uri(uri -> {
+            uri.path("/search").queryParam("specialty", sp.name()).queryParam("size", PAGE_SIZE);
+            if (after != null) uri.queryParam("cursor", after);
+            return uri.build();
+          })
+          .retrieve().body(Map.class);
+      if (page == null || !(page.get("content") instanceof List<?> content)) break;
+      result.addAll((List<Map<String, Object>>) content);
+      cursor = (String) page.get("nextCursor");
+    } while (cursor != null);
+    return result;
+  }
 
-    Object contentObj = page.get("content");
-    if (!(contentObj instanceof List<?> content)) return List.of();
+  /**
+   * {@link #findBySpecialty} sin bloquear: inmediato con el directorio cargado; si no, recorre /search
+   * en el pool de lookups. Cancelar el futuro (o que venza) evita que la tarea arranque si seguía en
+   * cola, y si ya corre corta el recorrido antes de la página siguiente.
+   */
+  public CompletableFuture<List<Map<String, Object>>> findBySpecialtyAsync(Specialty sp) {
+    if (directory.isLoaded()) return CompletableFuture.completedFuture(directory.findBySpecialty(sp));
+    var result = new CompletableFuture<List<Map<String, Object>>>();
+    lookups.execute(() -> {
+      if (result.isDone()) return;
+      try {
+        result.complete(findBySpecialty(sp, result::isDone));
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    });
+    return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+  }
 
-    return ((List<Map<String, Object>>) content).stream()
-        .filter(d -> sp.name().equals(String.valueOf(d.get("specialty"))))
-        .toList();
+  /** Carga completa del directorio (al arrancar y como resincronización periódica por si se perdieron eventos). */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(initialDelayString = "${app.doctors.directory.refresh-ms:600000}",
+             fixedDelayString = "${app.doctors.directory.refresh-ms:600000}")
+  @SuppressWarnings("unchecked")
+  public void loadDirectory() {
+    try {
+      directory.beginReload();
+      List<Map<String, Object>> all = new ArrayList<>();
+      for (int page = 0; ; page++) {
+        int p = page;
+        Map body = rest.get()
+            .uri(uri -> uri.queryParam("page", p).queryParam("size", PAGE_SIZE).build())
+            .retrieve().body(Map.class);
+        if (body == null || !(body.get("content") instanceof List<?> content) || content.isEmpty()) break;
+        all.addAll((List<Map<String, Object>>) content);
+        if (Boolean.TRUE.equals(body.get("last")) || content.size() < PAGE_SIZE) break;
+      }
+      directory.replaceAll(all);
+      log.info("Directorio de médicos cargado: {} médicos", all.size());
+    } catch (RuntimeException e) {
+      directory.abandonReload();
+      log.warn("No se pudo cargar el directorio de médicos: {}", e.getMessage());
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+package com.root.appointment_service.service.remote;
+
+import com.root.appointment_service.domain.Specialty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copia local del directorio de médicos (id → médico y especialidad → ids).
+ * La llena {@link DoctorClient} al arrancar y la mantienen al día los eventos doctor.*.
+ * Eventos y resincronización pasan por el mismo lock; lo que cambió por eventos mientras se
+ * leía una resincronización ({@link #beginReload()}) es más nuevo que ésta y no se pisa.
+ */
+@Component
+public class DoctorDirectory {
+
+  private static final Comparator<Map<String, Object>> BY_LAST_NAME =
+      Comparator.comparing(d -> String.valueOf(d.get("lastName")));
+
+  private final Map<UUID, Map<String, Object>> byId = new ConcurrentHashMap<>();
+  private final Map<Specialty, Set<UUID>> bySpecialty = new ConcurrentHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile boolean loaded;
+  // Ids tocados por eventos desde beginReload(); null = no hay resincronización en curso
+  private Set<UUID> changedSinceSnapshot;
+
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  public Map<String, Object> get(UUID id) {
+    return byId.get(id);
+  }
+
+  /** Médicos de la especialidad ordenados por apellido (mismo orden que el listado remoto). */
+  public List<Map<String, Object>> findBySpecialty(Specialty sp) {
+    var ids = bySpecialty.getOrDefault(sp, Set.of());
+    List<Map<String, Object>> list = new ArrayList<>(ids.size());
+    for (UUID id : ids) {
+      var d = byId.get(id);
+      if (d != null) list.add(d);
+    }
+    list.sort(BY_LAST_NAME);
+    return list;
+  }
+
+  public void put(Map<String, Object> doctor) {
+    UUID id = UUID.fromString(String.valueOf(doctor.get("id")));
+    lock.lock();
+    try {
+      store(id, doctor);
+      if (changedSinceSnapshot != null) changedSinceSnapshot.add(id);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void remove(UUID id) {
+    lock.lock();
+    try {
+      discard(id);
+      if (changedSinceSnapshot != null) changedSinceSnapshot.add(id);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Llamar antes de leer la resincronización: desde acá se anotan los cambios por eventos. */
+  public void beginReload() {
+    lock.lock();
+    try {
+      changedSinceSnapshot = new HashSet<>();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** La resincronización falló: deja de anotar cambios y conserva el contenido actual. */
+  public void abandonReload() {
+    lock.lock();
+    try {
+      changedSinceSnapshot = null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Reemplaza el contenido completo (carga inicial o resincronización) salvo los médicos que
+   * cambiaron por eventos después de {@link #beginReload()}.
+   */
+  public void replaceAll(Collection<Map<String, Object>> doctors) {
+    lock.lock();
+    try {
+      Set<UUID> newer = changedSinceSnapshot != null ? changedSinceSnapshot : Set.of();
+      changedSinceSnapshot = null;
+      var fresh = new HashSet<UUID>();
+      for (var d : doctors) {
+        UUID id = UUID.fromString(String.valueOf(d.get("id")));
+        fresh.add(id);
+        if (!newer.contains(id)) store(id, d);
+      }
+      for (UUID id : Set.copyOf(byId.keySet())) {
+        if (!fresh.contains(id) && !newer.contains(id)) discard(id);
+      }
+      loaded = true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    return byId.size();
+  }
+
+  private void store(UUID id, Map<String, Object> doctor) {
+    var previous = byId.put(id, doctor);
+    var sp = specialtyOf(doctor);
+    if (previous != null && specialtyOf(previous) != sp) unindex(id, previous);
+    if (sp != null) bySpecialty.computeIfAbsent(sp, k -> ConcurrentHashMap.newKeySet()).add(id);
+  }
+
+  private void discard(UUID id) {
+    var previous = byId.remove(id);
+    if (previous != null) unindex(id, previous);
+  }
+
+  private void unindex(UUID id, Map<String, Object> doctor) {
+    var sp = specialtyOf(doctor);
+    if (sp != null) {
+      var ids = bySpecialty.get(sp);
+      if (ids != null) ids.remove(id);
+    }
+  }
+
+  private static Specialty specialtyOf(Map<String, Object> doctor) {
+    Object sp = doctor.get("specialty");
+    if (sp == null) return null;
+    try {
+      return Specialty.valueOf(String.valueOf(sp));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
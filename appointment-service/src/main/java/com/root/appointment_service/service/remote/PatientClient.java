@@ -1,25 +1,100 @@
 package com.root.appointment_service.service.remote;
 
+import com.root.clinic_common.cache.PatientCache;
+import com.root.clinic_common.http.RemoteUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
-import lombok.RequiredArgsConstructor;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.client.RestClientResponseException;
 
 @Component
 public class PatientClient {
 
+  private static final ParameterizedTypeReference<List<Map<String, Object>>> LIST_OF_MAPS =
+      new ParameterizedTypeReference<>() {};
+
   private final RestClient rest;
+  private final PatientCache cache;
+  private final RequestCoalescer<UUID, Map<String, Object>> coalescer;
+  private final int maxBatch;
+  private final long timeoutMs;
 
   // Constructor explícito con Qualifier (NO usar @RequiredArgsConstructor aquí)
-  public PatientClient(@Qualifier("patientRestClient") RestClient rest) {
+  public PatientClient(@Qualifier("patientRestClient") RestClient rest, PatientCache cache,
+                       @Qualifier("lookupExecutor") Executor lookups,
+                       @Value("${app.lookups.window-ms:2}") long windowMs,
+                       @Value("${app.lookups.max-batch:50}") int maxBatch,
+                       @Value("${app.lookups.timeout-ms:2000}") long timeoutMs) {
     this.rest = rest;
+    this.cache = cache;
+    this.maxBatch = maxBatch;
+    this.timeoutMs = timeoutMs;
+    this.coalescer = new RequestCoalescer<>(this::fetch, lookups, windowMs, maxBatch);
   }
 
+  /** Cache local y, si no está, un GET ?ids= compartido con las búsquedas concurrentes. */
   public Map<String, Object> getPatient(UUID id) {
-    return rest.get().uri("/{id}", id).retrieve().body(Map.class);
+    var cached = cache.get(id);
+    if (cached != null) return cached;
+    try {
+      return coalescer.get(id);
+    } catch (RemoteUnavailableException e) {
+      return fallback(id, e);
+    }
+  }
+
+  /**
+   * Igual que {@link #getPatient} pero sin bloquear y con plazo {@code app.lookups.timeout-ms}. Devuelve
+   * una copia del futuro del lote: cancelarla o que venza no afecta a las demás búsquedas del lote.
+   */
+  public CompletableFuture<Map<String, Object>> getPatientAsync(UUID id) {
+    var cached = cache.get(id);
+    if (cached != null) return CompletableFuture.completedFuture(cached);
+    return coalescer.load(id).copy().orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .exceptionally(e -> fallback(id, e));
+  }
+
+  /** Varios pacientes: los que no están en cache se piden con GET ?ids= (de a max-batch). Los inexistentes no vuelven. */
+  public Map<UUID, Map<String, Object>> getPatients(Collection<UUID> ids) {
+    Map<UUID, Map<String, Object>> result = new HashMap<>();
+    List<UUID> missing = new ArrayList<>();
+    for (UUID id : new LinkedHashSet<>(ids)) {
+      var cached = cache.get(id);
+      if (cached != null) result.put(id, cached);
+      else missing.add(id);
+    }
+    for (int i = 0; i < missing.size(); i += maxBatch) {
+      result.putAll(fetch(missing.subList(i, Math.min(i + maxBatch, missing.size()))));
+    }
+    return result;
+  }
+
+  // patient-service caído, saturado o lento: la última copia conocida, aunque haya vencido
+  private Map<String, Object> fallback(UUID id, Throwable error) {
+    var stale = cache.getStale(id);
+    if (stale != null) return stale;
+    if (error instanceof RuntimeException e) throw e;
+    throw new CompletionException(error);
+  }
+
+  private Map<UUID, Map<String, Object>> fetch(List<UUID> ids) {
+    List<Map<String, Object>> body = rest.get()
+        .uri(uri -> uri.queryParam("ids", ids).build())
+        .retrieve().body(LIST_OF_MAPS);
+    Map<UUID, Map<String, Object>> found = new HashMap<>();
+    if (body == null) return found;
+    for (var p : body) {
+      UUID id = UUID.fromString(String.valueOf(p.get("id")));
+      cache.put(id, p);
+      found.put(id, p);
+    }
+    return found;
   }
-}
\ No newline at end of file
+}
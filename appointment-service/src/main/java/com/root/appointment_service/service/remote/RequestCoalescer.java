@@ -0,0 +1,92 @@
+package com.root.appointment_service.service.remote;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Junta búsquedas individuales concurrentes en una sola llamada bulk. La primera búsqueda de una
+ * ventana programa el envío a los {@code windowMs}; las que llegan mientras tanto se suman al mismo
+ * lote (un lote lleno se envía en el acto). Un id repetido dentro de la ventana comparte el futuro.
+ */
+final class RequestCoalescer<K, V> {
+
+  private final Function<List<K>, Map<K, V>> bulk;
+  private final Executor executor;
+  private final long windowMs;
+  private final int maxBatch;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+  RequestCoalescer(Function<List<K>, Map<K, V>> bulk, Executor executor, long windowMs, int maxBatch) {
+    this.bulk = bulk;
+    this.executor = executor;
+    this.windowMs = windowMs;
+    this.maxBatch = Math.max(1, maxBatch);
+  }
+
+  /** Espera el lote que contiene {@code key}; null si el servicio no lo devolvió (no existe). */
+  V get(K key) {
+    try {
+      return load(key).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) throw cause;
+      throw e;
+    }
+  }
+
+  CompletableFuture<V> load(K key) {
+    CompletableFuture<V> f;
+    Map<K, CompletableFuture<V>> full = null;
+    lock.lock();
+    try {
+      f = pending.get(key);
+      if (f != null) return f;
+      f = new CompletableFuture<>();
+      pending.put(key, f);
+      if (pending.size() >= maxBatch) {
+        full = takePending();
+      } else if (pending.size() == 1) {
+        // El timer solo vacía la ventana; la llamada HTTP corre en el executor
+        CompletableFuture.delayedExecutor(windowMs, TimeUnit.MILLISECONDS).execute(this::flush);
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (full != null) submit(full);
+    return f;
+  }
+
+  private void flush() {
+    Map<K, CompletableFuture<V>> batch;
+    lock.lock();
+    try {
+      batch = takePending();
+    } finally {
+      lock.unlock();
+    }
+    if (!batch.isEmpty()) submit(batch);
+  }
+
+  private Map<K, CompletableFuture<V>> takePending() {
+    var batch = pending;
+    pending = new LinkedHashMap<>();
+    return batch;
+  }
+
+  private void submit(Map<K, CompletableFuture<V>> batch) {
+    executor.execute(() -> {
+      try {
+        Map<K, V> found = bulk.apply(new ArrayList<>(batch.keySet()));
+        batch.forEach((k, f) -> f.complete(found.get(k)));
+      } catch (RuntimeException e) {
+        batch.values().forEach(f -> f.completeExceptionally(e));
+      }
+    });
+  }
+}
@@ -1,5 +1,6 @@
 package com.root.appointment_service.web;
 
+import com.root.appointment_service.domain.Specialty;
 import com.root.appointment_service.service.AppointmentAppService;
 import com.root.appointment_service.web.dto.*;
 import jakarta.validation.Valid;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -33,6 +35,21 @@ public class AppointmentController {
         return ResponseEntity.created(URI.create("/api/v1/appointments/" + res.id())).body(res);
     }
 
+    // NUEVO: Alta masiva; devuelve el resultado de cada cita (creada o motivo del rechazo)
+    @PostMapping("/bulk")
+    public BulkAppointmentResponse createBulk(@RequestBody @Valid BulkAppointmentRequest req) {
+        return app.createBulk(req);
+    }
+
+    // NUEVO: Listado por cursor (por paciente, por médico o próximas citas activas si no hay filtro)
+    @GetMapping
+    public CursorPage<AppointmentResponse> list(@RequestParam(required = false) UUID patientId,
+                                                @RequestParam(required = false) UUID doctorId,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size) {
+        return app.list(patientId, doctorId, cursor, size);
+    }
+
     // Obtener por id
     @GetMapping("/{id}")
     public AppointmentResponse get(@PathVariable UUID id) {
@@ -63,5 +80,18 @@ public class AppointmentController {
         return app.getAvailability(doctorId, date, slotMinutes, workStart, workEnd, durationMinutes);
     }
 
+    // NUEVO: Disponibilidad de varios médicos (o de una especialidad) en un rango de días
+    @GetMapping("/availability/range")
+    public List<AvailableSlotsResponse> availabilityRange(@RequestParam(required = false) List<UUID> doctorIds,
+                                                          @RequestParam(required = false) Specialty specialty,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                          @RequestParam(required = false, defaultValue = "30") Integer slotMinutes,
+                                                          @RequestParam(required = false, defaultValue = "08:00") String workStart,
+                                                          @RequestParam(required = false, defaultValue = "17:00") String workEnd,
+                                                          @RequestParam(required = false) Integer durationMinutes) {
+        return app.getAvailabilityRange(doctorIds, specialty, from, to, slotMinutes, workStart, workEnd, durationMinutes);
+    }
+
     
 }
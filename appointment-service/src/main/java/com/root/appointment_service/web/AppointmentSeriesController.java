@@ -0,0 +1,49 @@
+package com.root.appointment_service.web;
+
+import com.root.appointment_service.service.RecurringSeriesService;
+import com.root.appointment_service.web.dto.*;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.*;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/appointments/series")
+@RequiredArgsConstructor
+public class AppointmentSeriesController {
+
+    private final RecurringSeriesService series;
+
+    // Crear serie recurrente (se guarda la regla, no una fila por ocurrencia)
+    @PostMapping
+    public ResponseEntity<SeriesResponse> create(@RequestBody @Valid CreateSeriesRequest req) {
+        var res = series.create(req);
+        return ResponseEntity.created(URI.create("/api/v1/appointments/series/" + res.id())).body(res);
+    }
+
+    @GetMapping("/{id}")
+    public SeriesResponse get(@PathVariable UUID id) {
+        return series.get(id);
+    }
+
+    // Ocurrencias concretas de la serie dentro de la ventana pedida
+    @GetMapping("/{id}/occurrences")
+    public List<AvailabilitySlot> occurrences(@PathVariable UUID id,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return series.occurrences(id, from, to);
+    }
+
+    // Cancelar la serie completa
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void cancel(@PathVariable UUID id) {
+        series.cancel(id);
+    }
+}
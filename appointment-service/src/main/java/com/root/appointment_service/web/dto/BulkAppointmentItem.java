@@ -0,0 +1,16 @@
+package com.root.appointment_service.web.dto;
+
+import com.root.appointment_service.domain.*;
+import jakarta.validation.constraints.*;
+import java.time.Instant;
+import java.util.UUID;
+
+// Cita de un alta masiva: médico explícito y sin auto-ajuste de horario
+public record BulkAppointmentItem(
+        @NotNull UUID patientId,
+        @NotNull UUID doctorId,
+        @NotNull Specialty specialty,
+        @NotNull Instant startAt,
+        @Min(10) @Max(180) int durationMinutes,
+        String notes) {
+}
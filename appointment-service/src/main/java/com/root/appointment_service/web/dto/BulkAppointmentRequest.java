@@ -0,0 +1,9 @@
+package com.root.appointment_service.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+public record BulkAppointmentRequest(
+        @NotEmpty @Size(max = 500) List<@Valid @NotNull BulkAppointmentItem> appointments) {
+}
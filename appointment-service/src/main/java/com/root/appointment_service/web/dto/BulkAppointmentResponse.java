@@ -0,0 +1,6 @@
+package com.root.appointment_service.web.dto;
+
+import java.util.List;
+
+public record BulkAppointmentResponse(int created, int rejected, List<BulkAppointmentResult> results) {
+}
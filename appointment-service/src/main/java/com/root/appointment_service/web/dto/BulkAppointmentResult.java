@@ -0,0 +1,5 @@
+package com.root.appointment_service.web.dto;
+
+// Resultado por posición del lote: la cita creada o el motivo del rechazo
+public record BulkAppointmentResult(int index, AppointmentResponse appointment, String error) {
+}
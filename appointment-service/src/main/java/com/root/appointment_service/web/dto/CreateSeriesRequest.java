@@ -0,0 +1,18 @@
+package com.root.appointment_service.web.dto;
+
+import com.root.appointment_service.domain.*;
+import jakarta.validation.constraints.*;
+import java.time.Instant;
+import java.util.UUID;
+
+// Serie recurrente: firstStart y luego cada intervalDays días, occurrences veces
+public record CreateSeriesRequest(
+        @NotNull UUID patientId,
+        @NotNull UUID doctorId,
+        @NotNull Specialty specialty,
+        @NotNull Instant firstStart,
+        @Min(10) @Max(180) int durationMinutes,
+        @Min(1) @Max(90) int intervalDays,
+        @Min(2) @Max(520) int occurrences,
+        String notes) {
+}
@@ -0,0 +1,11 @@
+package com.root.appointment_service.web.dto;
+
+import com.root.appointment_service.domain.*;
+import java.time.Instant;
+import java.util.UUID;
+
+public record SeriesResponse(
+        UUID id, UUID patientId, UUID doctorId, Specialty specialty,
+        Instant firstStart, int durationMinutes, int intervalDays, int occurrences,
+        Instant lastEnd, AppointmentStatus status, String notes) {
+}
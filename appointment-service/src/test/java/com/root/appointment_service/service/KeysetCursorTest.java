@@ -0,0 +1,30 @@
+package com.root.appointment_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+	@Test
+	void roundTripKeepsStartAtAndId() {
+		var cursor = new KeysetCursor(Instant.parse("2030-01-07T13:00:00.123456Z"), UUID.randomUUID());
+		assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void encodedCursorIsUrlSafe() {
+		var encoded = new KeysetCursor(Instant.parse("2030-01-07T13:00:00Z"), UUID.randomUUID()).encode();
+		assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+	}
+
+	@Test
+	void malformedCursorIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("no es base64!"));
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("c2luLXNlcGFyYWRvcg"));
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(""));
+	}
+}
@@ -0,0 +1,102 @@
+package com.root.appointment_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceRuleTest {
+
+	// [100,130) [200,230) [300,330)
+	private final RecurrenceRule rule = new RecurrenceRule(100, 100, 30, 2);
+
+	@Test
+	void intervalTouchingAnOccurrenceDoesNotOverlap() {
+		assertFalse(rule.overlaps(70, 100));
+		assertFalse(rule.overlaps(130, 200));
+		assertFalse(rule.overlaps(230, 300));
+		assertFalse(rule.overlaps(330, 400));
+	}
+
+	@Test
+	void intervalOneSecondIntoAnOccurrenceOverlaps() {
+		assertTrue(rule.overlaps(70, 101));
+		assertTrue(rule.overlaps(129, 131));
+		assertTrue(rule.overlaps(329, 400));
+		assertTrue(rule.overlaps(0, 1_000));
+	}
+
+	@Test
+	void intervalOutsideTheSeriesDoesNotOverlap() {
+		assertFalse(rule.overlaps(0, 50));
+		assertFalse(rule.overlaps(400, 500)); // donde iría la cuarta ocurrencia
+	}
+
+	@Test
+	void equalPeriodsOverlapOnlyWhenOffsetIsShorterThanDuration() {
+		var a = new RecurrenceRule(0, 100, 30, 9);
+		assertFalse(a.overlaps(new RecurrenceRule(30, 100, 30, 9)));
+		assertFalse(a.overlaps(new RecurrenceRule(-30, 100, 30, 9)));
+		assertTrue(a.overlaps(new RecurrenceRule(29, 100, 30, 9)));
+		assertTrue(a.overlaps(new RecurrenceRule(-29, 100, 30, 9)));
+	}
+
+	@Test
+	void coprimePeriodsMeetWhenBothSeriesLastLongEnough() {
+		// 7k = 5 + 11j recién en k = 7, j = 4
+		var b = new RecurrenceRule(5, 11, 1, 20);
+		assertTrue(new RecurrenceRule(0, 7, 1, 20).overlaps(b));
+		assertFalse(new RecurrenceRule(0, 7, 1, 6).overlaps(b));
+	}
+
+	@Test
+	void otherSeriesNotStartedYet() {
+		var a = new RecurrenceRule(0, 10, 2, 99); // [500,502) es la ocurrencia 50
+		assertFalse(a.overlaps(new RecurrenceRule(505, 10, 2, 3)));
+		assertTrue(a.overlaps(new RecurrenceRule(501, 10, 2, 3)));
+		assertFalse(a.overlaps(new RecurrenceRule(1_000, 10, 2, 3))); // empieza cuando a ya terminó
+	}
+
+	@Test
+	void seriesOverlapMatchesBruteForce() {
+		var random = new Random(42);
+		for (int i = 0; i < 2_000; i++) {
+			var a = randomRule(random);
+			var b = randomRule(random);
+			assertEquals(bruteForce(a, b), a.overlaps(b), () -> a + " vs " + b);
+		}
+	}
+
+	@Test
+	void betweenRespectsWindowEdges() {
+		assertTrue(rule.between(130, 200).isEmpty());
+		assertTrue(rule.between(330, 1_000).isEmpty());
+		assertStarts(List.of(100L), rule.between(129, 200));
+		assertStarts(List.of(100L, 200L), rule.between(100, 300));
+		assertStarts(List.of(100L, 200L, 300L), rule.between(100, 301));
+		assertStarts(List.of(100L, 200L, 300L), rule.between(0, 1_000));
+	}
+
+	private static RecurrenceRule randomRule(Random random) {
+		long period = 2 + random.nextInt(15);
+		return new RecurrenceRule(random.nextInt(60), period, 1 + random.nextInt((int) period), random.nextInt(8));
+	}
+
+	private static boolean bruteForce(RecurrenceRule a, RecurrenceRule b) {
+		for (long i = 0; i <= a.last(); i++) {
+			long s = a.first() + i * a.period();
+			for (long j = 0; j <= b.last(); j++) {
+				long t = b.first() + j * b.period();
+				if (s < t + b.duration() && t < s + a.duration()) return true;
+			}
+		}
+		return false;
+	}
+
+	private static void assertStarts(List<Long> expected, List<long[]> occurrences) {
+		assertEquals(expected, occurrences.stream().map(o -> o[0]).toList());
+		occurrences.forEach(o -> assertEquals(30, o[1] - o[0]));
+	}
+}
@@ -0,0 +1,74 @@
+package com.root.appointment_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotFinderTest {
+
+	private static final Instant FROM = Instant.parse("2030-01-07T13:00:00Z");
+	private static final Instant UNTIL = FROM.plus(Duration.ofHours(4));
+	private static final Duration THIRTY = Duration.ofMinutes(30);
+
+	@Test
+	void noBusyReturnsFrom() {
+		assertGap(0, SlotFinder.firstGap(List.of(), FROM, UNTIL, THIRTY, THIRTY));
+	}
+
+	@Test
+	void busyEndedBeforeFromIsIgnored() {
+		assertGap(0, find(busy(-60, -30), busy(-30, 0)));
+	}
+
+	@Test
+	void busyStartingRightAfterTheSlotLeavesItFree() {
+		assertGap(0, find(busy(30, 60)));
+	}
+
+	@Test
+	void slotStartsWhenTheBusyIntervalEnds() {
+		assertGap(30, find(busy(0, 30)));
+	}
+
+	@Test
+	void slotIsAlignedToTheGridAfterAnOffGridBusy() {
+		assertGap(60, find(busy(0, 40)));
+		assertGap(60, find(busy(10, 31)));
+	}
+
+	@Test
+	void gapShorterThanTheDurationIsSkipped() {
+		// Entre 60 y 80 hay hueco pero no de 30 minutos en la grilla
+		assertGap(90, find(busy(0, 60), busy(80, 90)));
+	}
+
+	@Test
+	void slotMayEndExactlyAtUntil() {
+		assertGap(210, find(busy(0, 210)));
+		assertTrue(find(busy(0, 211)).isEmpty());
+	}
+
+	@Test
+	void windowShorterThanTheDurationHasNoGap() {
+		assertTrue(SlotFinder.firstGap(List.of(), FROM, FROM.plus(Duration.ofMinutes(29)), THIRTY, THIRTY).isEmpty());
+	}
+
+	private static Optional<Instant[]> find(Instant[]... busy) {
+		return SlotFinder.firstGap(List.of(busy), FROM, UNTIL, THIRTY, THIRTY);
+	}
+
+	private static Instant[] busy(int fromMinute, int toMinute) {
+		return new Instant[]{FROM.plus(Duration.ofMinutes(fromMinute)), FROM.plus(Duration.ofMinutes(toMinute))};
+	}
+
+	private static void assertGap(int startMinute, Optional<Instant[]> gap) {
+		assertTrue(gap.isPresent());
+		assertEquals(FROM.plus(Duration.ofMinutes(startMinute)), gap.get()[0]);
+		assertEquals(gap.get()[0].plus(THIRTY), gap.get()[1]);
+	}
+}
@@ -0,0 +1,68 @@
+package com.root.appointment_service.service.remote;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+	private final List<List<Integer>> calls = new CopyOnWriteArrayList<>();
+
+	// Devuelve "v<id>" para los ids pares; los impares "no existen"
+	private final Function<List<Integer>, Map<Integer, String>> bulk = ids -> {
+		calls.add(ids);
+		Map<Integer, String> found = new HashMap<>();
+		ids.stream().filter(id -> id % 2 == 0).forEach(id -> found.put(id, "v" + id));
+		return found;
+	};
+
+	@Test
+	void lookupsInTheSameWindowShareOneBulkCall() throws Exception {
+		var coalescer = new RequestCoalescer<>(bulk, Runnable::run, 50, 10);
+		var a = coalescer.load(2);
+		var b = coalescer.load(3);
+		var c = coalescer.load(4);
+
+		assertEquals("v2", a.get(1, TimeUnit.SECONDS));
+		assertNull(b.get(1, TimeUnit.SECONDS));
+		assertEquals("v4", c.get(1, TimeUnit.SECONDS));
+		assertEquals(List.of(List.of(2, 3, 4)), calls);
+	}
+
+	@Test
+	void repeatedKeyInTheWindowSharesTheFuture() {
+		var coalescer = new RequestCoalescer<>(bulk, Runnable::run, 50, 10);
+		assertSame(coalescer.load(2), coalescer.load(2));
+		assertEquals("v2", coalescer.get(2));
+		assertEquals(List.of(List.of(2)), calls);
+	}
+
+	@Test
+	void fullBatchIsSentWithoutWaitingForTheWindow() {
+		var coalescer = new RequestCoalescer<>(bulk, Runnable::run, 60_000, 2);
+		var a = coalescer.load(2);
+		var b = coalescer.load(4);
+		assertTrue(a.isDone() && b.isDone());
+		assertEquals(List.of(List.of(2, 4)), calls);
+
+		// El siguiente id abre un lote nuevo
+		var c = coalescer.load(6);
+		assertFalse(c.isDone());
+	}
+
+	@Test
+	void bulkFailureFailsEveryLookupOfTheBatch() {
+		var coalescer = new RequestCoalescer<Integer, String>(ids -> {
+			throw new IllegalStateException("caído");
+		}, Runnable::run, 60_000, 2);
+		var a = coalescer.load(1);
+		var e = assertThrows(IllegalStateException.class, () -> coalescer.get(2));
+		assertEquals("caído", e.getMessage());
+		assertTrue(a.isCompletedExceptionally());
+	}
+}
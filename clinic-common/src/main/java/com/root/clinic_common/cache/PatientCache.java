@@ -0,0 +1,127 @@
+package com.root.clinic_common.cache;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache LRU acotada con TTL de pacientes (id → respuesta de patient-service).
+ * Solo guarda respuestas positivas; los eventos patient.updated/deleted la invalidan.
+ * Las entradas vencidas no se borran: quedan como respaldo ({@link #getStale}) para cuando
+ * patient-service no responde, hasta que el LRU las desplace o llegue una copia nueva.
+ * Para las métricas una entrada vencida cuenta como desalojo una sola vez: al detectarse el
+ * vencimiento en {@link #get}, o cuando el LRU la saca si nadie la pidió antes.
+ */
+public class PatientCache {
+
+  private final int maxSize;
+  private final long ttlNanos;
+  private final LinkedHashMap<UUID, Entry> map;
+  // LinkedHashMap en orden de acceso: hasta get() modifica, así que todo pasa por el lock
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder puts = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public PatientCache(int maxSize, Duration ttl) {
+    this.maxSize = maxSize;
+    this.ttlNanos = ttl.toNanos();
+    this.map = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+        boolean evict = size() > PatientCache.this.maxSize;
+        if (evict && !eldest.getValue().expired()) evictions.increment();
+        return evict;
+      }
+    };
+  }
+
+  public Map<String, Object> get(UUID id) {
+    lock.lock();
+    try {
+      var e = map.get(id);
+      if (e == null) {
+        misses.increment();
+        return null;
+      }
+      if (e.expired() || e.expiresAt() - System.nanoTime() < 0) {
+        if (!e.expired()) {
+          evictions.increment();
+          map.put(id, new Entry(e.patient(), e.expiresAt(), true)); // queda como copia de respaldo
+        }
+        misses.increment();
+        return null;
+      }
+      hits.increment();
+      return e.patient();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Última copia conocida aunque haya vencido el TTL (fallback con patient-service caído). */
+  public Map<String, Object> getStale(UUID id) {
+    lock.lock();
+    try {
+      var e = map.get(id);
+      return e == null ? null : e.patient();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void put(UUID id, Map<String, Object> patient) {
+    lock.lock();
+    try {
+      map.put(id, new Entry(patient, System.nanoTime() + ttlNanos, false));
+    } finally {
+      lock.unlock();
+    }
+    puts.increment();
+  }
+
+  public void invalidate(UUID id) {
+    lock.lock();
+    try {
+      map.remove(id);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long size() {
+    lock.lock();
+    try {
+      return map.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long putCount() {
+    return puts.sum();
+  }
+
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  public double hitRate() {
+    long h = hits.sum(), total = h + misses.sum();
+    return total == 0 ? 0d : (double) h / total;
+  }
+
+  // expired: ya contada como desalojo (vencida), se conserva solo para getStale
+  private record Entry(Map<String, Object> patient, long expiresAt, boolean expired) {}
+}
@@ -0,0 +1,45 @@
+package com.root.clinic_common.cache;
+
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/** Expone la {@link PatientCache} como métricas estándar cache.* (cache="patients"); Boot lo enlaza al registry. */
+public class PatientCacheMetrics extends CacheMeterBinder<PatientCache> {
+
+  public PatientCacheMetrics(PatientCache cache) {
+    super(cache, "patients", Tags.empty());
+  }
+
+  @Override
+  protected Long size() {
+    return getCache() == null ? null : getCache().size();
+  }
+
+  @Override
+  protected long hitCount() {
+    return getCache() == null ? 0 : getCache().hitCount();
+  }
+
+  @Override
+  protected Long missCount() {
+    return getCache() == null ? null : getCache().missCount();
+  }
+
+  @Override
+  protected Long evictionCount() {
+    return getCache() == null ? null : getCache().evictionCount();
+  }
+
+  @Override
+  protected long putCount() {
+    return getCache() == null ? 0 : getCache().putCount();
+  }
+
+  @Override
+  protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    Gauge.builder("cache.hit.ratio", this, m -> m.getCache() == null ? 0 : m.getCache().hitRate())
+        .tag("cache", "patients")
+        .description("Proporción de aciertos de la cache de pacientes")
+        .register(registry);
+  }
+}
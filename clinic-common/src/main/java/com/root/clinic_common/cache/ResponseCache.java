@@ -0,0 +1,61 @@
+package com.root.clinic_common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Cache local de respuestas por id para los GET /{id} que más llaman los otros servicios
+ * (doctor-service y patient-service la registran como bean). Se invalida al confirmar un
+ * update/delete en la instancia y con los eventos *.updated/deleted en las demás; el TTL acota lo
+ * que quede desfasado si se pierde un evento.
+ */
+public class ResponseCache<V> {
+
+  private final Cache<UUID, V> cache;
+
+  public ResponseCache(long maxSize, Duration ttl) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .build();
+  }
+
+  /** Read-through: en un miss carga con {@code loader} (una sola carga por id a la vez). */
+  public V get(UUID id, Function<UUID, V> loader) {
+    return cache.get(id, loader);
+  }
+
+  /**
+   * Varios ids a la vez: los que faltan en cache se cargan juntos con {@code loader}. Los ids que
+   * el loader no devuelve (inexistentes) no se cachean ni aparecen en el resultado.
+   */
+  public Map<UUID, V> getAll(Collection<UUID> ids, Function<Set<UUID>, Map<UUID, V>> loader) {
+    return cache.getAll(ids, missing -> loader.apply(Collections.unmodifiableSet(missing)));
+  }
+
+  public void evict(UUID id) {
+    cache.invalidate(id);
+  }
+
+  /**
+   * Invalida ya y otra vez al confirmar la transacción: una lectura concurrente que cargue el
+   * valor anterior antes del commit no queda cacheada hasta el TTL.
+   */
+  public void evictAfterCommit(UUID id) {
+    cache.invalidate(id);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          cache.invalidate(id);
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.root.clinic_common.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Transporte HTTP entre servicios, importado por el ClientsConfig de cada servicio: un solo pool
+ * de conexiones (tope total y por servicio destino), timeouts de conexión/lectura/espera de pool y
+ * keep-alive. Con {@code app.http.version=HTTP_2} se usa el cliente del JDK (h2c, una conexión
+ * multiplexada por destino) en lugar del pool de HttpClient 5. Los servicios arman sus RestClients
+ * con {@link #restClient} (cada uno con su {@link RemoteGuard}) y las métricas del pool con
+ * {@link #poolMetrics}.
+ */
+@Configuration
+public class InterServiceHttpConfig {
+
+    public static final String POOLED = "HTTP_1_1";
+
+    /** RestClient hacia {@code target} sobre la factory compartida, detrás de su propio RemoteGuard. */
+    public static RestClient restClient(String target, String baseUrl, ClientHttpRequestFactory requestFactory,
+                                        ObservationRegistry observations, RemoteGuard.Settings guard,
+                                        MeterRegistry registry) {
+        return RestClient.builder().baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .requestInterceptor(new RemoteGuard(target, guard, registry))
+                .observationRegistry(observations)
+                .build();
+    }
+
+    /** http.client.pool.connections{target, state}: conexiones del pool por servicio destino. */
+    public static MeterBinder poolMetrics(PoolingHttpClientConnectionManager pool, Map<String, URI> targets) {
+        return registry -> targets.forEach((target, uri) -> bindPool(registry, pool, target, uri));
+    }
+
+    // Circuit breaker + bulkhead por servicio destino (un RemoteGuard por RestClient)
+    @Bean
+    public RemoteGuard.Settings remoteGuardSettings(@Value("${app.remote.max-concurrent:16}") int maxConcurrent,
+                                                    @Value("${app.remote.window:20}") int window,
+                                                    @Value("${app.remote.min-calls:10}") int minCalls,
+                                                    @Value("${app.remote.failure-rate:50}") int failureRate,
+                                                    @Value("${app.remote.slow-call:1500ms}") Duration slowCall,
+                                                    @Value("${app.remote.open-for:10s}") Duration openFor) {
+        return new RemoteGuard.Settings(maxConcurrent, window, minCalls, failureRate, slowCall, openFor);
+    }
+
+    @Bean(name = "interServiceConnectionManager", destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.http.version", havingValue = POOLED, matchIfMissing = true)
+    public PoolingHttpClientConnectionManager interServiceConnectionManager(
+            @Value("${app.http.max-total:50}") int maxTotal,
+            @Value("${app.http.max-per-route:20}") int maxPerRoute,
+            @Value("${app.http.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${app.http.read-timeout:2s}") Duration readTimeout,
+            @Value("${app.http.connection-ttl:5m}") Duration ttl) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(ttl))
+                        // Revalida conexiones que quedaron ociosas (el otro lado pudo cerrarlas)
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(name = "interServiceHttpClient", destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.http.version", havingValue = POOLED, matchIfMissing = true)
+    public CloseableHttpClient interServiceHttpClient(
+            @Qualifier("interServiceConnectionManager") PoolingHttpClientConnectionManager pool,
+            @Value("${app.http.read-timeout:2s}") Duration readTimeout,
+            @Value("${app.http.pool-timeout:500ms}") Duration poolTimeout,
+            @Value("${app.http.idle-timeout:30s}") Duration idleTimeout) {
+        return HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Pool agotado: falla rápido en vez de encolar trabajo detrás de un servicio lento
+                        .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .setConnectionKeepAlive(TimeValue.of(idleTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+    }
+
+    @Bean(name = "interServiceRequestFactory")
+    @ConditionalOnProperty(name = "app.http.version", havingValue = POOLED, matchIfMissing = true)
+    public ClientHttpRequestFactory pooledRequestFactory(
+            @Qualifier("interServiceHttpClient") CloseableHttpClient httpClient) {
+        // El HttpClient es un bean compartido: lo cierra el contexto, no la factory
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Bean(name = "interServiceRequestFactory")
+    @ConditionalOnProperty(name = "app.http.version", havingValue = "HTTP_2")
+    public ClientHttpRequestFactory http2RequestFactory(@Value("${app.http.connect-timeout:1s}") Duration connectTimeout,
+                                                        @Value("${app.http.read-timeout:2s}") Duration readTimeout) {
+        var client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+        var factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(readTimeout);
+        return factory;
+    }
+
+    private static void bindPool(MeterRegistry registry, PoolingHttpClientConnectionManager pool,
+                                 String target, URI uri) {
+        gauge(registry, pool, target, uri, "leased", PoolStats::getLeased);
+        gauge(registry, pool, target, uri, "available", PoolStats::getAvailable);
+        gauge(registry, pool, target, uri, "pending", PoolStats::getPending);
+        Gauge.builder("http.client.pool.max", pool, PoolingHttpClientConnectionManager::getDefaultMaxPerRoute)
+                .tag("target", target)
+                .register(registry);
+    }
+
+    // Suma las rutas hacia el host:puerto del destino (el pool crea la ruta con la primera conexión)
+    private static void gauge(MeterRegistry registry, PoolingHttpClientConnectionManager pool, String target,
+                              URI uri, String state, ToIntFunction<PoolStats> stat) {
+        String host = uri.getHost();
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        Gauge.builder("http.client.pool.connections", pool, p -> p.getRoutes().stream()
+                        .filter(r -> host.equalsIgnoreCase(r.getTargetHost().getHostName())
+                                && r.getTargetHost().getPort() == port)
+                        .mapToInt(r -> stat.applyAsInt(p.getStats(r)))
+                        .sum())
+                .tag("target", target)
+                .tag("state", state)
+                .register(registry);
+    }
+}
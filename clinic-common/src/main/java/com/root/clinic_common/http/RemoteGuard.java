@@ -0,0 +1,288 @@
+package com.root.clinic_common.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker + bulkhead de un servicio remoto, como interceptor del RestClient.
+ * <ul>
+ *   <li>Bulkhead: como máximo {@code maxConcurrent} llamadas en curso; las demás fallan en el acto
+ *       en vez de esperar conexión (y tener hilos colgados detrás de un servicio lento).</li>
+ *   <li>Circuito: sobre las últimas {@code window} llamadas, si fallan (5xx, error de I/O o más
+ *       lentas que {@code slowCall}) al menos {@code failureRate}% se abre por {@code openFor};
+ *       después deja pasar una llamada de prueba que lo cierra o lo vuelve a abrir.</li>
+ * </ul>
+ * Una llamada termina cuando se cierra la respuesta (RestClient la cierra tras leer el cuerpo):
+ * recién ahí se libera el bulkhead y se mide la latencia, así que un cuerpo lento ocupa su lugar
+ * y cuenta como llamada lenta. Un error leyendo el cuerpo cuenta como falla.
+ * Todo rechazo o falla de I/O al ejecutar la llamada sale como {@link RemoteUnavailableException}.
+ */
+public class RemoteGuard implements ClientHttpRequestInterceptor {
+
+  private static final Logger log = LoggerFactory.getLogger(RemoteGuard.class);
+
+  public record Settings(int maxConcurrent, int window, int minCalls, int failureRate,
+                         Duration slowCall, Duration openFor) {}
+
+  private enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private enum Permit { DENIED, NORMAL, TRIAL }
+
+  private final String target;
+  private final Settings settings;
+  private final long slowNanos;
+  private final Semaphore bulkhead;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // Resultado de las últimas llamadas (true = falla) en un buffer circular
+  private final boolean[] outcomes;
+  private int next;
+  private int recorded;
+  private int failures;
+  private State state = State.CLOSED;
+  private long openedAt;
+  private boolean trialInFlight;
+
+  private final Timer succeeded;
+  private final Timer failed;
+  private final Counter rejectedOpen;
+  private final Counter rejectedFull;
+
+  public RemoteGuard(String target, Settings settings, MeterRegistry registry) {
+    this.target = target;
+    this.settings = settings;
+    this.slowNanos = settings.slowCall().toNanos();
+    this.bulkhead = new Semaphore(settings.maxConcurrent());
+    this.outcomes = new boolean[Math.max(1, settings.window())];
+
+    this.succeeded = Timer.builder("remote.calls").tag("target", target).tag("outcome", "success")
+        .description("Llamadas al servicio remoto").register(registry);
+    this.failed = Timer.builder("remote.calls").tag("target", target).tag("outcome", "failure")
+        .description("Llamadas al servicio remoto").register(registry);
+    this.rejectedOpen = Counter.builder("remote.calls.rejected").tag("target", target).tag("reason", "circuit_open")
+        .register(registry);
+    this.rejectedFull = Counter.builder("remote.calls.rejected").tag("target", target).tag("reason", "bulkhead_full")
+        .register(registry);
+    Gauge.builder("remote.circuit.state", this, g -> g.state().ordinal())
+        .tag("target", target).description("0 = cerrado, 1 = abierto, 2 = semiabierto").register(registry);
+    Gauge.builder("remote.circuit.failure.rate", this, RemoteGuard::failureRate)
+        .tag("target", target).description("% de fallas en la ventana").register(registry);
+    Gauge.builder("remote.bulkhead.available", bulkhead, Semaphore::availablePermits)
+        .tag("target", target).register(registry);
+  }
+
+  @Override
+  public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) {
+    if (!bulkhead.tryAcquire()) {
+      rejectedFull.increment();
+      throw new RemoteUnavailableException(target + " saturado: demasiadas llamadas en curso");
+    }
+    var permit = acquire();
+    if (permit == Permit.DENIED) {
+      bulkhead.release();
+      rejectedOpen.increment();
+      throw new RemoteUnavailableException(target + " no disponible (circuito abierto)");
+    }
+    var call = new Call(permit);
+    ClientHttpResponse response = null;
+    try {
+      response = execution.execute(request, body);
+      return new GuardedResponse(response, call, response.getStatusCode().is5xxServerError());
+    } catch (IOException e) {
+      if (response != null) response.close();
+      call.finish(true);
+      throw new RemoteUnavailableException(target + " no responde: " + e.getMessage());
+    } catch (RuntimeException | Error e) {
+      if (response != null) response.close();
+      call.finish(true);
+      throw e;
+    }
+  }
+
+  private Permit acquire() {
+    lock.lock();
+    try {
+      return switch (state) {
+        case CLOSED -> Permit.NORMAL;
+        case OPEN -> {
+          if (System.nanoTime() - openedAt < settings.openFor().toNanos()) yield Permit.DENIED;
+          state = State.HALF_OPEN;
+          log.info("Circuito de {} semiabierto: llamada de prueba", target);
+          yield trial();
+        }
+        case HALF_OPEN -> trial();
+      };
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Con el lock tomado: una sola llamada de prueba a la vez
+  private Permit trial() {
+    if (trialInFlight) return Permit.DENIED;
+    trialInFlight = true;
+    return Permit.TRIAL;
+  }
+
+  private void record(Permit permit, boolean failure) {
+    lock.lock();
+    try {
+      if (permit == Permit.TRIAL) {
+        trialInFlight = false;
+        if (failure) open();
+        else close();
+        return;
+      }
+      // Resultados que llegan con el circuito ya abierto no cuentan
+      if (state != State.CLOSED) return;
+      if (recorded == outcomes.length) {
+        if (outcomes[next]) failures--;
+      } else {
+        recorded++;
+      }
+      outcomes[next] = failure;
+      if (failure) failures++;
+      next = (next + 1) % outcomes.length;
+      if (recorded >= settings.minCalls() && failures * 100 >= settings.failureRate() * recorded) open();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void open() {
+    if (state != State.OPEN)
+      log.warn("Circuito de {} abierto por {} ({}/{} fallas)", target, settings.openFor(), failures, recorded);
+    state = State.OPEN;
+    openedAt = System.nanoTime();
+  }
+
+  private void close() {
+    log.info("Circuito de {} cerrado", target);
+    state = State.CLOSED;
+    next = 0;
+    recorded = 0;
+    failures = 0;
+  }
+
+  /** Una llamada con su permiso; {@link #finish} corre una sola vez (error o cierre de la respuesta). */
+  private final class Call {
+    private final Permit permit;
+    private final long start = System.nanoTime();
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private Call(Permit permit) {
+      this.permit = permit;
+    }
+
+    void finish(boolean failure) {
+      if (!done.compareAndSet(false, true)) return;
+      try {
+        long elapsed = System.nanoTime() - start;
+        boolean bad = failure || elapsed > slowNanos;
+        (bad ? failed : succeeded).record(elapsed, TimeUnit.NANOSECONDS);
+        record(permit, bad);
+      } finally {
+        bulkhead.release();
+      }
+    }
+  }
+
+  /** Respuesta que termina la llamada al cerrarse; un IOException leyendo el cuerpo la marca fallida. */
+  private static final class GuardedResponse implements ClientHttpResponse {
+    private final ClientHttpResponse delegate;
+    private final Call call;
+    private volatile boolean failure;
+
+    GuardedResponse(ClientHttpResponse delegate, Call call, boolean failure) {
+      this.delegate = delegate;
+      this.call = call;
+      this.failure = failure;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() throws IOException {
+      return delegate.getStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+      return delegate.getStatusText();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return delegate.getHeaders();
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+      return new FilterInputStream(delegate.getBody()) {
+        @Override
+        public int read() throws IOException {
+          try {
+            return super.read();
+          } catch (IOException e) {
+            failure = true;
+            throw e;
+          }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          try {
+            return super.read(b, off, len);
+          } catch (IOException e) {
+            failure = true;
+            throw e;
+          }
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+      try {
+        delegate.close();
+      } finally {
+        call.finish(failure);
+      }
+    }
+  }
+
+  private State state() {
+    lock.lock();
+    try {
+      return state;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private double failureRate() {
+    lock.lock();
+    try {
+      return recorded == 0 ? 0d : failures * 100d / recorded;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package com.root.clinic_common.http;
+
+/** El servicio remoto no respondió (o no a tiempo) o su {@link RemoteGuard} rechazó la llamada. */
+public class RemoteUnavailableException extends RuntimeException {
+  public RemoteUnavailableException(String message) {
+    super(message);
+  }
+}
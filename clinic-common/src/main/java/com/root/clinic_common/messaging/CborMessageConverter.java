@@ -0,0 +1,67 @@
+package com.root.clinic_common.messaging;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Converter binario (CBOR) para los eventos. Usa el mismo modelo que Jackson2JsonMessageConverter
+ * (records, header __TypeId__ con ids lógicos, tipo inferido del listener) pero sin pasar por
+ * texto: cuerpos más chicos y menos CPU por mensaje.
+ */
+public class CborMessageConverter extends AbstractMessageConverter {
+
+    public static final String CONTENT_TYPE = "application/cbor";
+
+    private final ObjectMapper mapper;
+    private final DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+
+    public CborMessageConverter(Map<String, Class<?>> idClassMapping) {
+        this.mapper = CBORMapper.builder()
+                .findAndAddModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        // UUID como texto: quien lea el payload como Map ve el mismo valor que con JSON
+        mapper.configOverride(UUID.class).setFormat(JsonFormat.Value.forShape(JsonFormat.Shape.STRING));
+        typeMapper.setIdClassMapping(idClassMapping);
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties props) {
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(object);
+        } catch (IOException e) {
+            throw new MessageConversionException("No se pudo serializar el mensaje a CBOR", e);
+        }
+        props.setContentType(CONTENT_TYPE);
+        props.setContentLength(body.length);
+        typeMapper.fromJavaType(mapper.constructType(object.getClass()), props);
+        return new Message(body, props);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        var props = message.getMessageProperties();
+        JavaType type = props.getInferredArgumentType() != null
+                || props.getHeader(typeMapper.getClassIdFieldName()) != null
+                ? typeMapper.toJavaType(props)
+                : mapper.constructType(Object.class);
+        try {
+            return mapper.readValue(message.getBody(), type);
+        } catch (IOException e) {
+            throw new MessageConversionException("No se pudo leer el mensaje CBOR", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.root.clinic_common.messaging;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+/**
+ * Payload de un evento del que solo interesa el id. Acepta {@code {"id": ...}} (productores
+ * actuales, y el payload completo de created/updated) y también el id suelto como string, que
+ * es lo que mandaban los *.deleted antes de los sobres tipados: durante un despliegue gradual
+ * conviven los dos formatos en la cola.
+ */
+public record EntityRef(UUID id) {
+
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    public EntityRef(@JsonProperty("id") UUID id) {
+        this.id = id;
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static EntityRef of(String id) {
+        return new EntityRef(UUID.fromString(id));
+    }
+}
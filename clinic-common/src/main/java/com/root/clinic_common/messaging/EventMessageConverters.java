@@ -0,0 +1,37 @@
+package com.root.clinic_common.messaging;
+
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.Map;
+
+/** Converter de eventos que registra cada servicio en su RabbitConfig. */
+public final class EventMessageConverters {
+
+    private EventMessageConverters() {
+    }
+
+    /**
+     * Negociación por content-type: cada mensaje se lee con el converter de su content-type
+     * (JSON o CBOR) y al publicar se usa {@code publishContentType}. JSON sigue siendo el
+     * valor por defecto para poder actualizar primero a los consumidores.
+     *
+     * @param types ids lógicos de {@code __TypeId__} → clase local del evento
+     */
+    public static MessageConverter byContentType(String publishContentType, Map<String, Class<?>> types) {
+        var typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setIdClassMapping(types);
+        var json = new Jackson2JsonMessageConverter();
+        json.setJavaTypeMapper(typeMapper);
+        var cbor = new CborMessageConverter(types);
+
+        var converter = new ContentTypeDelegatingMessageConverter(
+                CborMessageConverter.CONTENT_TYPE.equals(publishContentType) ? cbor : json);
+        converter.addDelegate(MessageProperties.CONTENT_TYPE_JSON, json);
+        converter.addDelegate(CborMessageConverter.CONTENT_TYPE, cbor);
+        return converter;
+    }
+}
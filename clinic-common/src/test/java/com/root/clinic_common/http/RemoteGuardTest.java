@@ -0,0 +1,137 @@
+package com.root.clinic_common.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteGuardTest {
+
+	private static final Duration OPEN_FOR = Duration.ofMillis(50);
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final AtomicInteger executions = new AtomicInteger();
+
+	@Test
+	void bulkheadIsHeldUntilTheResponseIsClosed() throws IOException {
+		var guard = guard(1, 2, Duration.ofSeconds(1));
+		var response = call(guard, HttpStatus.OK);
+		assertEquals(0, gauge("remote.bulkhead.available"));
+
+		var e = assertThrows(RemoteUnavailableException.class, () -> call(guard, HttpStatus.OK));
+		assertTrue(e.getMessage().contains("saturado"));
+
+		response.close();
+		assertEquals(1, gauge("remote.bulkhead.available"));
+		call(guard, HttpStatus.OK).close();
+	}
+
+	@Test
+	void circuitOpensAfterFailuresAndRejectsWithoutCalling() throws IOException {
+		var guard = guard(4, 2, Duration.ofSeconds(1));
+		call(guard, HttpStatus.INTERNAL_SERVER_ERROR).close();
+		call(guard, HttpStatus.INTERNAL_SERVER_ERROR).close();
+		assertEquals(1, gauge("remote.circuit.state"));
+
+		var e = assertThrows(RemoteUnavailableException.class, () -> call(guard, HttpStatus.OK));
+		assertTrue(e.getMessage().contains("circuito abierto"));
+		assertEquals(2, executions.get());
+		assertEquals(4, gauge("remote.bulkhead.available"));
+	}
+
+	@Test
+	void halfOpenLetsOneTrialThroughAndClosesOnSuccess() throws Exception {
+		var guard = openCircuit();
+		Thread.sleep(OPEN_FOR.toMillis() + 20);
+
+		var trial = call(guard, HttpStatus.OK);
+		assertEquals(2, gauge("remote.circuit.state"));
+		assertThrows(RemoteUnavailableException.class, () -> call(guard, HttpStatus.OK));
+
+		trial.close();
+		assertEquals(0, gauge("remote.circuit.state"));
+		call(guard, HttpStatus.OK).close();
+	}
+
+	@Test
+	void failedTrialReopensTheCircuit() throws Exception {
+		var guard = openCircuit();
+		Thread.sleep(OPEN_FOR.toMillis() + 20);
+
+		call(guard, HttpStatus.SERVICE_UNAVAILABLE).close();
+		assertEquals(1, gauge("remote.circuit.state"));
+		assertThrows(RemoteUnavailableException.class, () -> call(guard, HttpStatus.OK));
+	}
+
+	@Test
+	void ioErrorIsRejectedAsUnavailableAndCountsAsFailure() {
+		var guard = guard(1, 1, Duration.ofSeconds(1));
+		ClientHttpRequestExecution failing = (request, body) -> {
+			throw new IOException("connection reset");
+		};
+		var e = assertThrows(RemoteUnavailableException.class,
+				() -> guard.intercept(new MockClientHttpRequest(), new byte[0], failing));
+		assertTrue(e.getMessage().contains("no responde"));
+		assertEquals(1, gauge("remote.circuit.state"));
+		assertEquals(1, gauge("remote.bulkhead.available"));
+	}
+
+	@Test
+	void errorReadingTheBodyCountsAsFailure() {
+		var guard = guard(1, 1, Duration.ofSeconds(1));
+		var broken = new MockClientHttpResponse(new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("read timed out");
+			}
+		}, HttpStatus.OK);
+		var response = guard.intercept(new MockClientHttpRequest(), new byte[0], (request, body) -> broken);
+
+		assertThrows(IOException.class, () -> response.getBody().read());
+		assertEquals(0, gauge("remote.circuit.state"));
+		response.close();
+		assertEquals(1, gauge("remote.circuit.state"));
+	}
+
+	@Test
+	void slowBodyCountsAsSlowCall() throws Exception {
+		var guard = guard(1, 1, Duration.ofMillis(20));
+		var response = call(guard, HttpStatus.OK);
+		Thread.sleep(40); // lectura lenta del cuerpo
+		response.close();
+		assertEquals(1, gauge("remote.circuit.state"));
+	}
+
+	private RemoteGuard openCircuit() throws IOException {
+		var guard = guard(4, 1, Duration.ofSeconds(1));
+		call(guard, HttpStatus.INTERNAL_SERVER_ERROR).close();
+		assertEquals(1, gauge("remote.circuit.state"));
+		return guard;
+	}
+
+	private RemoteGuard guard(int maxConcurrent, int minCalls, Duration slowCall) {
+		return new RemoteGuard("test", new RemoteGuard.Settings(maxConcurrent, 4, minCalls, 50, slowCall, OPEN_FOR),
+				registry);
+	}
+
+	private ClientHttpResponse call(RemoteGuard guard, HttpStatus status) {
+		return guard.intercept(new MockClientHttpRequest(), new byte[0], (request, body) -> {
+			executions.incrementAndGet();
+			return new MockClientHttpResponse(new byte[0], status);
+		});
+	}
+
+	private double gauge(String name) {
+		return registry.get(name).tag("target", "test").gauge().value();
+	}
+}
@@ -1,15 +1,19 @@
 package com.root.doctor_service.config;
 
+import com.root.clinic_common.messaging.EventMessageConverters;
+import com.root.doctor_service.service.DoctorEvent;
 import org.springframework.amqp.core.ExchangeBuilder;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Map;
+
 @Configuration
 @EnableRabbit
 public class RabbitConfig {
@@ -17,15 +21,16 @@ public class RabbitConfig {
     @Value("${rabbitmq.exchange.doctor}")
     private String doctorExchangeName;
 
+    // JSON o CBOR según el content-type de cada mensaje; se publica con app.amqp.content-type
     @Bean
-    public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
-        // Serializa/deserializa mensajes a JSON automáticamente
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(@Value("${app.amqp.content-type:application/json}") String contentType) {
+        Map<String, Class<?>> types = Map.of(DoctorEvent.TYPE_ID, DoctorEvent.class);
+        return EventMessageConverters.byContentType(contentType, types);
     }
 
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
-                                         Jackson2JsonMessageConverter messageConverter) {
+                                         MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter);
         // Establece el exchange por defecto para convertAndSend(...)
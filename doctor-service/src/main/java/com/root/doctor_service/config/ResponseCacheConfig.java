@@ -0,0 +1,19 @@
+package com.root.doctor_service.config;
+
+import com.root.clinic_common.cache.ResponseCache;
+import com.root.doctor_service.web.dto.DoctorResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.*;
+
+import java.time.Duration;
+
+@Configuration
+public class ResponseCacheConfig {
+
+    // GET /doctors/{id}, invalidada al commit y por doctor.updated/deleted
+    @Bean
+    public ResponseCache<DoctorResponse> doctorResponseCache(@Value("${app.doctors.cache.max-size:10000}") long maxSize,
+                                                          @Value("${app.doctors.cache.ttl:10m}") Duration ttl) {
+        return new ResponseCache<>(maxSize, ttl);
+    }
+}
@@ -15,6 +15,9 @@ import java.util.*;
 @Table(name = "doctors", uniqueConstraints = {
         @UniqueConstraint(name = "uk_doctors_email", columnNames = "email"),
         @UniqueConstraint(name = "uk_doctors_license", columnNames = "license_number")
+}, indexes = {
+        @Index(name = "idx_doctors_specialty", columnList = "specialty,lastName,id"),
+        @Index(name = "idx_doctors_last_name", columnList = "lastName,id")
 })
 public class Doctor {
     @Id
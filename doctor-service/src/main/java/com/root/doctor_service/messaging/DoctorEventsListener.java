@@ -0,0 +1,32 @@
+package com.root.doctor_service.messaging;
+
+import com.root.clinic_common.cache.ResponseCache;
+import com.root.doctor_service.service.DoctorEvent;
+import com.root.doctor_service.web.dto.DoctorResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.*;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Invalida la {@link ResponseCache} de médicos con los doctor.updated/deleted publicados por
+ * cualquier instancia (cola anónima por instancia, así cada una recibe todos los eventos).
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorEventsListener {
+
+    private final ResponseCache<DoctorResponse> cache;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue(autoDelete = "true", exclusive = "true"),
+            exchange = @Exchange(value = "${rabbitmq.exchange.doctor}", type = "topic"),
+            key = {"${app.amqp.routing.updated}", "${app.amqp.routing.deleted}"}))
+    public void onEvent(DoctorEvent event) {
+        if (event.payload() instanceof Map<?, ?> body && body.get("id") != null) {
+            cache.evict(UUID.fromString(String.valueOf(body.get("id"))));
+        }
+    }
+}
@@ -1,10 +1,47 @@
 package com.root.doctor_service.repo;
 
 import com.root.doctor_service.domain.Doctor;
+import com.root.doctor_service.domain.Specialty;
+import com.root.doctor_service.web.dto.DoctorSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.*;
 
 public interface DoctorRepository extends JpaRepository<Doctor, UUID> {
 boolean existsByEmail(String email);
 boolean existsByLicenseNumber(String licenseNumber);
+
+// Búsqueda por especialidad con keyset (lastName, id) sobre idx_doctors_specialty
+@Query("""
+       select new com.root.doctor_service.web.dto.DoctorSummary(d.id, d.firstName, d.lastName, d.specialty)
+       from Doctor d
+       where d.specialty = :specialty
+       order by d.lastName, d.id
+       """)
+List<DoctorSummary> searchBySpecialty(@Param("specialty") Specialty specialty, Limit limit);
+
+@Query("""
+       select new com.root.doctor_service.web.dto.DoctorSummary(d.id, d.firstName, d.lastName, d.specialty)
+       from Doctor d
+       where d.specialty = :specialty
+         and (d.lastName > :lastName or (d.lastName = :lastName and d.id > :id))
+       order by d.lastName, d.id
+       """)
+List<DoctorSummary> searchBySpecialtyAfter(@Param("specialty") Specialty specialty,
+                                           @Param("lastName") String lastName,
+                                           @Param("id") UUID id,
+                                           Limit limit);
+
+// Listado completo con keyset (lastName, id) sobre idx_doctors_last_name: sin COUNT ni OFFSET
+@Query("select d from Doctor d order by d.lastName, d.id")
+List<Doctor> scrollFirst(Limit limit);
+
+@Query("""
+       select d from Doctor d
+       where d.lastName > :lastName or (d.lastName = :lastName and d.id > :id)
+       order by d.lastName, d.id
+       """)
+List<Doctor> scrollAfter(@Param("lastName") String lastName, @Param("id") UUID id, Limit limit);
 }
@@ -1,5 +1,6 @@
 package com.root.doctor_service.service;
 
+import com.root.clinic_common.cache.ResponseCache;
 import com.root.doctor_service.domain.*;
 import com.root.doctor_service.repo.*;
 import com.root.doctor_service.web.dto.*;
@@ -8,16 +9,24 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class DoctorAppService {
+    private static final int MAX_IDS = 100;
+
     private final DoctorRepository repo;
     private final DoctorEventPublisher events;
+    private final ResponseCache<DoctorResponse> cache;
 
     public DoctorResponse create(@Valid DoctorRequest req) {
         if (repo.existsByEmail(req.email()))
@@ -38,10 +47,24 @@ public class DoctorAppService {
         return res;
     }
 
-    @Transactional(readOnly = true)
+    // SUPPORTS: un hit de cache no abre transacción ni toca la base; en un miss findById usa la suya
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public DoctorResponse get(UUID id) {
-        Doctor d = repo.findById(id).orElseThrow(() -> new EntityNotFoundException("Médico no encontrado"));
-        return toResponse(d);
+        return cache.get(id, key -> toResponse(repo.findById(key)
+                .orElseThrow(() -> new EntityNotFoundException("Médico no encontrado"))));
+    }
+
+    /**
+     * Búsqueda por varios ids en el orden pedido; los inexistentes se omiten. Lo que no está en
+     * cache sale de un solo findAllById.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<DoctorResponse> getAll(List<UUID> ids) {
+        if (ids.size() > MAX_IDS)
+            throw new IllegalArgumentException("Se admiten hasta " + MAX_IDS + " ids por consulta");
+        var found = cache.getAll(ids, missing -> repo.findAllById(missing).stream()
+                .collect(Collectors.toMap(Doctor::getId, this::toResponse)));
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).toList();
     }
 
     @Transactional(readOnly = true)
@@ -50,6 +73,44 @@ public class DoctorAppService {
                 .map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<DoctorSummary> search(Specialty specialty, String cursor, int size) {
+        int limit = pageLimit(size);
+        List<DoctorSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repo.searchBySpecialty(specialty, Limit.of(limit + 1));
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = repo.searchBySpecialtyAfter(specialty, after.lastName(), after.id(), Limit.of(limit + 1));
+        }
+        return cursorPage(rows, limit, d -> new KeysetCursor(d.lastName(), d.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<DoctorResponse> scroll(String cursor, int size) {
+        int limit = pageLimit(size);
+        List<Doctor> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repo.scrollFirst(Limit.of(limit + 1));
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = repo.scrollAfter(after.lastName(), after.id(), Limit.of(limit + 1));
+        }
+        return cursorPage(rows.stream().map(this::toResponse).toList(), limit,
+                d -> new KeysetCursor(d.lastName(), d.id()));
+    }
+
+    private static int pageLimit(int size) {
+        return Math.min(Math.max(size, 1), 100);
+    }
+
+    // Se pide una fila extra (limit + 1) para saber si hay página siguiente sin hacer COUNT
+    private static <T> CursorPage<T> cursorPage(List<T> rows, int limit, Function<T, KeysetCursor> key) {
+        if (rows.size() <= limit) return new CursorPage<>(rows, limit, null);
+        var page = rows.subList(0, limit);
+        return new CursorPage<>(page, limit, key.apply(page.get(limit - 1)).encode());
+    }
+
     public DoctorResponse update(UUID id, @Valid DoctorRequest req) {
         Doctor d = repo.findById(id).orElseThrow(() -> new EntityNotFoundException("Médico no encontrado"));
         d.setFirstName(req.firstName());
@@ -67,6 +128,7 @@ public class DoctorAppService {
             d.setLicenseNumber(req.licenseNumber());
         }
         DoctorResponse res = toResponse(d);
+        cache.evictAfterCommit(id);
         events.publishUpdated(res);
         return res;
     }
@@ -75,7 +137,8 @@ public class DoctorAppService {
         if (!repo.existsById(id))
             return;
         repo.deleteById(id);
-        events.publishDeleted("{\"id\":\"" + id + "\"}");
+        cache.evictAfterCommit(id);
+        events.publishDeleted(id);
     }
 
     private DoctorResponse toResponse(Doctor d) {
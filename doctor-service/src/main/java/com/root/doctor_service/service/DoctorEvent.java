@@ -0,0 +1,14 @@
+package com.root.doctor_service.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Sobre de los eventos de médicos. En el header __TypeId__ viaja {@link #TYPE_ID}, no el nombre
+ * de la clase. El payload es un DoctorResponse, o {@link Deleted} en doctor.deleted.
+ */
+public record DoctorEvent(UUID eventId, String type, Instant occurredAt, Object payload) {
+    public static final String TYPE_ID = "doctor.event";
+
+    public record Deleted(UUID id) {}
+}
@@ -1,5 +1,6 @@
 package com.root.doctor_service.service;
 
+import com.root.doctor_service.web.dto.DoctorResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -7,7 +8,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 
-import java.util.*;
+import java.time.Instant;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -19,15 +21,15 @@ private final TopicExchange doctorExchange;
 @Value("${app.amqp.routing.deleted}") private String rkDeleted;
 
 
-public void publishCreated(Object payload){ send(rkCreated, payload); }
-public void publishUpdated(Object payload){ send(rkUpdated, payload); }
-public void publishDeleted(Object payload){ send(rkDeleted, payload); }
+public void publishCreated(DoctorResponse payload){ send(rkCreated, payload); }
+public void publishUpdated(DoctorResponse payload){ send(rkUpdated, payload); }
+public void publishDeleted(UUID id){ send(rkDeleted, new DoctorEvent.Deleted(id)); }
 private void send(String routingKey, Object payload){
-Map<String,Object> event = Map.of(
-"type", routingKey,
-"occurredAt", new Date(),
-"payload", payload
-);
-rabbitTemplate.convertAndSend(doctorExchange.getName(), routingKey, event);
+UUID eventId = UUID.randomUUID();
+var event = new DoctorEvent(eventId, routingKey, Instant.now(), payload);
+rabbitTemplate.convertAndSend(doctorExchange.getName(), routingKey, event, m -> {
+m.getMessageProperties().setMessageId(eventId.toString());
+return m;
+});
 }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.root.doctor_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/** Posición (lastName, id) de la última fila devuelta, codificada como texto opaco para el cliente. */
+public record KeysetCursor(String lastName, UUID id) {
+
+    public String encode() {
+        String raw = id + "|" + lastName;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new KeysetCursor(raw.substring(sep + 1), UUID.fromString(raw.substring(0, sep)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.root.doctor_service.web;
 
+import com.root.doctor_service.domain.Specialty;
 import com.root.doctor_service.service.*;
 import com.root.doctor_service.web.dto.*;
 import jakarta.validation.Valid;
@@ -7,9 +8,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 
 import java.net.URI;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -26,8 +29,19 @@ return ResponseEntity.created(URI.create("/api/v1/doctors/"+res.id())).body(res)
 }
 
 
+// ETag derivado de updatedAt: con If-None-Match el cliente revalida y recibe 304 sin cuerpo
 @GetMapping("/{id}")
-public DoctorResponse get(@PathVariable UUID id){ return app.get(id); }
+public ResponseEntity<DoctorResponse> get(@PathVariable UUID id, WebRequest request){
+var res = app.get(id);
+String etag = "\"" + res.updatedAt().getEpochSecond() + "." + res.updatedAt().getNano() + "\"";
+if (request.checkNotModified(etag)) return null;
+return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(res);
+}
+
+
+// GET ?ids=a,b,c: varios médicos en una llamada (evita una petición por fila en los listados)
+@GetMapping(params = "ids")
+public List<DoctorResponse> getAll(@RequestParam List<UUID> ids){ return app.getAll(ids); }
 
 
 @GetMapping
@@ -37,6 +51,21 @@ return app.list(page, size);
 }
 
 
+@GetMapping("/scroll")
+public CursorPage<DoctorResponse> scroll(@RequestParam(required = false) String cursor,
+@RequestParam(defaultValue = "20") int size){
+return app.scroll(cursor, size);
+}
+
+
+@GetMapping("/search")
+public CursorPage<DoctorSummary> search(@RequestParam Specialty specialty,
+@RequestParam(required = false) String cursor,
+@RequestParam(defaultValue = "20") int size){
+return app.search(specialty, cursor, size);
+}
+
+
 @PutMapping("/{id}")
 public DoctorResponse update(@PathVariable UUID id, @RequestBody @Valid DoctorRequest req){
 return app.update(id, req);
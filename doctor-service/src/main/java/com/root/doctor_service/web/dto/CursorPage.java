@@ -0,0 +1,10 @@
+package com.root.doctor_service.web.dto;
+
+import java.util.List;
+
+/** Página por cursor (keyset): sin total ni COUNT; nextCursor es null en la última página. */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor) {
+}
@@ -0,0 +1,13 @@
+package com.root.doctor_service.web.dto;
+
+import java.util.UUID;
+
+import com.root.doctor_service.domain.Specialty;
+
+/** Proyección liviana para búsquedas: solo lo necesario para elegir médico. */
+public record DoctorSummary(
+        UUID id,
+        String firstName,
+        String lastName,
+        Specialty specialty) {
+}
@@ -0,0 +1,55 @@
+package com.root.notification_service.config;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.*;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ListenerConfig {
+
+    /**
+     * Contenedor de la cola de notificaciones: varios consumidores, prefetch alto y ack manual,
+     * porque el envío del correo termina en {@code mailDispatchExecutor} y no en el hilo del listener.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory notificationListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.notifications.listener.concurrency:2}") int concurrency,
+            @Value("${app.notifications.listener.max-concurrency:8}") int maxConcurrency,
+            @Value("${app.notifications.listener.prefetch:50}") int prefetch) {
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setPrefetchCount(prefetch);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Pool acotado para el trabajo bloqueante (HTTP a patient-service + SMTP). Con la cola llena
+     * la tarea corre en el hilo del listener, que deja de consumir: backpressure hacia RabbitMQ.
+     */
+    @Bean(name = "mailDispatchExecutor")
+    public ThreadPoolTaskExecutor mailDispatchExecutor(
+            @Value("${app.notifications.dispatch.threads:0}") int threads,
+            @Value("${app.notifications.dispatch.queue-capacity:100}") int queueCapacity) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors() * 4;
+        var ex = new ThreadPoolTaskExecutor();
+        ex.setThreadNamePrefix("mail-dispatch-");
+        ex.setCorePoolSize(size);
+        ex.setMaxPoolSize(size);
+        ex.setQueueCapacity(queueCapacity);
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.setAwaitTerminationSeconds(30);
+        return ex;
+    }
+}
@@ -1,10 +1,17 @@
 package com.root.notification_service.config;
 
+import com.root.clinic_common.messaging.EventMessageConverters;
+import com.root.notification_service.messaging.AppointmentEvent;
+import com.root.notification_service.messaging.PatientEvent;
 import org.springframework.amqp.core.*;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.*;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 @Configuration
 public class RabbitConfig {
     @Value("${app.amqp.exchange}")
@@ -13,6 +20,12 @@ public class RabbitConfig {
     String queueName;
     @Value("${app.amqp.binding}")
     String bindingKey;
+    @Value("${app.notifications.retry.max-attempts:4}")
+    int maxAttempts;
+    @Value("${app.notifications.retry.initial-interval-ms:5000}")
+    long initialIntervalMs;
+    @Value("${app.notifications.retry.multiplier:5}")
+    double multiplier;
 
     @Bean
     public TopicExchange appointmentExchange() {
@@ -25,12 +38,37 @@ public class RabbitConfig {
     }
 
     @Bean
-    public Binding binding(Queue q, TopicExchange ex) {
-        return BindingBuilder.bind(q).to(ex).with(bindingKey);
+    public Binding binding() {
+        // Referencias directas: los @RabbitListener con @QueueBinding registran otras colas/exchanges
+        return BindingBuilder.bind(queue()).to(appointmentExchange()).with(bindingKey);
+    }
+
+    /**
+     * Colas de reintento con backoff exponencial: &lt;queue&gt;.retry.N retiene el mensaje
+     * initial-interval * multiplier^(N-1) ms y lo devuelve (dead-letter) a la cola principal.
+     * Agotados los intentos, el mensaje queda en &lt;queue&gt;.dlq para revisión manual.
+     */
+    @Bean
+    public Declarables retryTopology() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int level = 1; level < maxAttempts; level++) {
+            long ttl = (long) (initialIntervalMs * Math.pow(multiplier, level - 1));
+            declarables.add(QueueBuilder.durable(queueName + ".retry." + level)
+                    .ttl((int) Math.min(ttl, Integer.MAX_VALUE))
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(queueName)
+                    .build());
+        }
+        declarables.add(QueueBuilder.durable(queueName + ".dlq").build());
+        return new Declarables(declarables);
     }
 
+    // JSON o CBOR según el content-type de cada mensaje; se publica con app.amqp.content-type
     @Bean
-    public Jackson2JsonMessageConverter converter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter converter(@Value("${app.amqp.content-type:application/json}") String contentType) {
+        Map<String, Class<?>> types = Map.of(
+                AppointmentEvent.TYPE_ID, AppointmentEvent.class,
+                PatientEvent.TYPE_ID, PatientEvent.class);
+        return EventMessageConverters.byContentType(contentType, types);
     }
 }
\ No newline at end of file
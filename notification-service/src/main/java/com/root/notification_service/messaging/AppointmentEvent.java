@@ -0,0 +1,12 @@
+package com.root.notification_service.messaging;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Evento de citas publicado por appointment-service ({@code __TypeId__ = appointment.event}). */
+public record AppointmentEvent(UUID eventId, String type, Instant occurredAt, Payload payload) {
+    public static final String TYPE_ID = "appointment.event";
+
+    public record Payload(UUID id, UUID patientId, UUID doctorId, String specialty,
+                          Instant startAt, Instant endAt) {}
+}
@@ -1,58 +1,144 @@
 package com.root.notification_service.messaging;
 
+import com.rabbitmq.client.Channel;
 import com.root.notification_service.service.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
-import java.util.*;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+@Slf4j
 @Component
 @ConditionalOnProperty(prefix = "app.notifications", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class AppointmentEventsListener {
 
     private final PatientClient patients;
     private final EmailService email;
+    private final NotificationTemplates templates;
+    private final NotificationRetryHandler retries;
+    private final MessageConverter converter;
+    private final DedupStore dedup;
+    private final Counter duplicates;
+    private final Executor dispatch;
 
-    public AppointmentEventsListener(PatientClient patients, EmailService email) {
+    public AppointmentEventsListener(PatientClient patients, EmailService email, NotificationTemplates templates,
+                                     NotificationRetryHandler retries, MessageConverter converter,
+                                     DedupStore dedup, MeterRegistry registry,
+                                     @Qualifier("mailDispatchExecutor") Executor dispatch) {
         this.patients = patients;
         this.email = email;
+        this.templates = templates;
+        this.retries = retries;
+        this.converter = converter;
+        this.dedup = dedup;
+        this.duplicates = Counter.builder("notifications.duplicates")
+                .description("Eventos descartados por eventId repetido").register(registry);
+        this.dispatch = dispatch;
     }
 
-    @RabbitListener(queues = "${app.amqp.queue}")
-    public void onEvent(Map<String, Object> event) {
-        Map payload = (Map) event.get("payload");
-        if (payload == null)
+    // El listener solo entrega el trabajo al pool; el ack se hace cuando el lote SMTP confirmó el correo.
+    // Un fallo nunca reencola en caliente: va a la cola de reintento con backoff o a la DLQ.
+    @RabbitListener(queues = "${app.amqp.queue}", containerFactory = "notificationListenerFactory")
+    public void onEvent(Message message, Channel channel) {
+        long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        AppointmentEvent event;
+        try {
+            // El tipo lo fija el consumidor; el converter (JSON o CBOR) sale del content-type
+            message.getMessageProperties().setInferredArgumentType(AppointmentEvent.class);
+            event = (AppointmentEvent) converter.fromMessage(message);
+        } catch (RuntimeException e) {
+            // Mensaje venenoso: no tiene sentido reintentarlo
+            settle(channel, deliveryTag, () -> retries.deadLetter(message, e));
             return;
+        }
+        // Duplicado (redelivery, reintento tras éxito, doble publicación): se descarta antes del HTTP/SMTP
+        String eventId = eventIdOf(message, event);
+        if (eventId != null && !dedup.claim(eventId)) {
+            duplicates.increment();
+            ack(channel, deliveryTag);
+            return;
+        }
+        dispatch.execute(() -> {
+            CompletableFuture<Void> sent;
+            try {
+                sent = handle(event);
+            } catch (Exception e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            sent.whenComplete((ok, e) -> {
+                if (e == null) {
+                    ack(channel, deliveryTag);
+                } else {
+                    log.warn("Notificación fallida ({}): {}", event.type(), e.getMessage());
+                    if (eventId != null) dedup.release(eventId);
+                    settle(channel, deliveryTag, () -> retries.retryOrDeadLetter(message, e));
+                }
+            });
+        });
+    }
 
-        UUID patientId = UUID.fromString(String.valueOf(payload.get("patientId")));
-        var p = patients.get(patientId);
+    private CompletableFuture<Void> handle(AppointmentEvent event) {
+        var payload = event.payload();
+        if (payload == null || payload.patientId() == null)
+            return CompletableFuture.completedFuture(null);
+
+        var p = patients.get(payload.patientId());
         if (p == null)
-            return;
+            return CompletableFuture.completedFuture(null);
 
         String emailTo = String.valueOf(p.get("email"));
-        String type = String.valueOf(event.get("type"));
-        String start = String.valueOf(payload.get("startAt"));
-        String end = String.valueOf(payload.get("endAt"));
-        String specialty = String.valueOf(payload.get("specialty"));
-
-        String subject = switch (type) {
-            case "appointment.cancelled" -> "Cita cancelada";
-            case "appointment.rescheduled" -> "Cita reprogramada";
-            default -> "Cita registrada";
-        };
-
-        String body = "Hola " + p.get("firstName") + ",\n\n" +
-                switch (type) {
-                    case "appointment.cancelled" -> "Tu cita ha sido cancelada.";
-                    case "appointment.rescheduled" -> "Tu cita ha sido reprogramada.";
-                    default -> "Tu cita ha sido agendada.";
-                } +
-                "\nEspecialidad: " + specialty +
-                "\nInicio: " + start +
-                "\nFin: " + end +
-                "\n\nGracias por usar nuestro servicio.";
-
-        email.sendAppointmentMail(emailTo, subject, body);
+        String type = event.type();
+
+        Object[] values = NotificationTemplates.newValues();
+        values[NotificationTemplates.Var.FIRST_NAME.ordinal()] = p.get("firstName");
+        values[NotificationTemplates.Var.SPECIALTY.ordinal()] = payload.specialty();
+        values[NotificationTemplates.Var.START_AT.ordinal()] = payload.startAt();
+        values[NotificationTemplates.Var.END_AT.ordinal()] = payload.endAt();
+        var locale = p.get("locale");
+        var mail = templates.render(type, locale == null ? null : locale.toString(), values);
+
+        return email.sendAppointmentMail(emailTo, mail.subject(), mail.body());
+    }
+
+    private static void ack(Channel channel, long deliveryTag) {
+        try {
+            channel.basicAck(deliveryTag, false);
+        } catch (IOException e) {
+            log.warn("No se pudo hacer ack de {}: {}", deliveryTag, e.getMessage());
+        }
+    }
+
+    private static String eventIdOf(Message message, AppointmentEvent event) {
+        if (event.eventId() != null) return event.eventId().toString();
+        return message.getMessageProperties().getMessageId();
+    }
+
+    /** Publica el reintento/DLQ y confirma el original; si no se pudo publicar, reencola. */
+    private static void settle(Channel channel, long deliveryTag, Runnable reroute) {
+        try {
+            reroute.run();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo derivar el mensaje {} a reintento/DLQ: {}", deliveryTag, e.getMessage());
+            nack(channel, deliveryTag);
+            return;
+        }
+        ack(channel, deliveryTag);
+    }
+
+    private static void nack(Channel channel, long deliveryTag) {
+        try {
+            channel.basicNack(deliveryTag, false, true);
+        } catch (IOException e) {
+            log.warn("No se pudo hacer nack de {}: {}", deliveryTag, e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.root.notification_service.messaging;
+
+import io.micrometer.core.instrument.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decide qué hacer con una notificación fallida: la reenvía a la cola de reintento del nivel
+ * siguiente (backoff por TTL) o, agotados los intentos o si es un mensaje ilegible, a la DLQ.
+ * En ambos casos el original se puede confirmar: nunca vuelve de inmediato a la cola principal.
+ */
+@Slf4j
+@Component
+public class NotificationRetryHandler {
+
+    static final String ATTEMPT_HEADER = "x-notify-attempt";
+    static final String ERROR_HEADER = "x-notify-error";
+
+    private final RabbitTemplate rabbit;
+    private final String queueName;
+    private final int maxAttempts;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    public NotificationRetryHandler(RabbitTemplate rabbit, MeterRegistry registry,
+                                    @Value("${app.amqp.queue}") String queueName,
+                                    @Value("${app.notifications.retry.max-attempts:4}") int maxAttempts) {
+        this.rabbit = rabbit;
+        this.queueName = queueName;
+        this.maxAttempts = maxAttempts;
+        this.retried = Counter.builder("notifications.retried")
+                .description("Notificaciones enviadas a una cola de reintento").register(registry);
+        this.deadLettered = Counter.builder("notifications.dead_lettered")
+                .description("Notificaciones enviadas a la DLQ").register(registry);
+    }
+
+    /** Reintento con backoff, o DLQ si ya no quedan intentos. */
+    public void retryOrDeadLetter(Message message, Throwable error) {
+        int attempt = attemptOf(message) + 1;
+        if (attempt >= maxAttempts) {
+            deadLetter(message, error);
+            return;
+        }
+        message.getMessageProperties().setHeader(ATTEMPT_HEADER, attempt);
+        rabbit.send("", queueName + ".retry." + attempt, message);
+        retried.increment();
+    }
+
+    /** Mensaje sin reintento posible (p. ej. no se puede deserializar). */
+    public void deadLetter(Message message, Throwable error) {
+        message.getMessageProperties().setHeader(ERROR_HEADER, String.valueOf(error.getMessage()));
+        rabbit.send("", queueName + ".dlq", message);
+        deadLettered.increment();
+        log.warn("Notificación enviada a DLQ tras {} intentos: {}", attemptOf(message) + 1, error.getMessage());
+    }
+
+    private static int attemptOf(Message message) {
+        Object v = message.getMessageProperties().getHeader(ATTEMPT_HEADER);
+        return v instanceof Number n ? n.intValue() : 0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.root.notification_service.messaging;
+
+import com.root.clinic_common.cache.PatientCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.*;
+import org.springframework.stereotype.Component;
+
+/** Invalida la {@link PatientCache} con los eventos patient.updated/deleted (cola anónima por instancia). */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PatientEventsListener {
+
+    private final PatientCache cache;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue(autoDelete = "true", exclusive = "true"),
+            exchange = @Exchange(value = "${app.amqp.patients.exchange}", type = "topic"),
+            key = {"${app.amqp.patients.routing.updated}", "${app.amqp.patients.routing.deleted}"}))
+    public void onEvent(PatientEvent event) {
+        if (event.payload() == null || event.payload().id() == null) {
+            log.warn("Evento de paciente ignorado ({}): sin id", event.type());
+            return;
+        }
+        cache.invalidate(event.payload().id());
+    }
+}
@@ -0,0 +1,51 @@
+package com.root.notification_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Conjunto acotado y con expiración de eventIds ya vistos. Un evento se "reclama" antes de hacer
+ * cualquier trabajo; si falla se libera para que el reintento pueda procesarlo, y si sale bien
+ * queda marcado hasta que expire. Las entradas más viejas se descartan al superar el tamaño.
+ */
+@Component
+public class DedupStore {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Long> seen; // eventId -> expira (nanoTime)
+
+    public DedupStore(@Value("${app.notifications.dedup.max-size:100000}") int maxSize,
+                      @Value("${app.notifications.dedup.ttl:24h}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.seen = new LinkedHashMap<>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > DedupStore.this.maxSize;
+            }
+        };
+    }
+
+    /** true si el evento no se había visto (o ya expiró) y queda reclamado por quien llama. */
+    public synchronized boolean claim(String eventId) {
+        long now = System.nanoTime();
+        Long expiresAt = seen.get(eventId);
+        if (expiresAt != null && expiresAt - now > 0) return false;
+        seen.remove(eventId); // reinsertar al final para mantener el orden de expiración
+        seen.put(eventId, now + ttlNanos);
+        return true;
+    }
+
+    /** El procesamiento falló: se permite volver a procesarlo. */
+    public synchronized void release(String eventId) {
+        seen.remove(eventId);
+    }
+
+    public synchronized int size() {
+        return seen.size();
+    }
+}
@@ -1,32 +1,39 @@
 package com.root.notification_service.service;
 
+import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import java.time.*;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class EmailService {
     private final JavaMailSender mail;
+    private final MailBatcher batcher;
     @Value("${app.notify.from}")
     String from;
     @Value("${app.notify.mock:true}")
     boolean mock;
 
-    public void sendAppointmentMail(String to, String subject, String body) {
+    /** Arma el correo y lo entrega al {@link MailBatcher}; el future se completa cuando salió por SMTP. */
+    public CompletableFuture<Void> sendAppointmentMail(String to, String subject, String body) {
         if (mock) {
             System.out.println("[MOCK EMAIL] to=" + to + " | " + subject + "\n" + body);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-        SimpleMailMessage msg = new SimpleMailMessage();
-        msg.setFrom(from);
-        msg.setTo(to);
-        msg.setSubject(subject);
-        msg.setText(body);
-        mail.send(msg);
+        var msg = mail.createMimeMessage();
+        try {
+            var helper = new MimeMessageHelper(msg, "UTF-8");
+            helper.setFrom(from);
+            helper.setTo(to);
+            helper.setSubject(subject);
+            helper.setText(body);
+        } catch (MessagingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return batcher.submit(msg);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,225 @@
+package com.root.notification_service.service;
+
+import io.micrometer.core.instrument.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.*;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Agrupa los correos salientes en lotes (hasta {@code max-size} mensajes o {@code window-ms}) y
+ * los envía por conexiones SMTP que se mantienen abiertas entre lotes, una por hilo emisor.
+ * Así una ráfaga de eventos paga un handshake TLS por conexión y no uno por correo.
+ * Al apagar se terminan de enviar los correos encolados (hasta {@code shutdown-timeout-ms}); los
+ * que queden se completan con error para que sus mensajes vuelvan a reintento.
+ */
+@Slf4j
+@Component
+public class MailBatcher {
+
+    private final JavaMailSender mail;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatch;
+    private final long windowNanos;
+    private final long idleCloseNanos;
+    private final int senders;
+    private final long shutdownTimeoutMs;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+    private final Counter batchFailures;
+    private final Counter messageFailures;
+
+    public MailBatcher(JavaMailSender mail, MeterRegistry registry,
+                       @Value("${app.mail.batch.max-size:50}") int maxBatch,
+                       @Value("${app.mail.batch.window-ms:200}") long windowMs,
+                       @Value("${app.mail.batch.queue-capacity:1000}") int capacity,
+                       @Value("${app.mail.batch.senders:2}") int senders,
+                       @Value("${app.mail.batch.idle-close-ms:30000}") long idleCloseMs,
+                       @Value("${app.mail.batch.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.mail = mail;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.idleCloseNanos = TimeUnit.MILLISECONDS.toNanos(idleCloseMs);
+        this.senders = Math.max(1, senders);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.batchTimer = Timer.builder("mail.batch.latency")
+                .description("Tiempo de envío de un lote SMTP").register(registry);
+        this.batchSize = DistributionSummary.builder("mail.batch.size")
+                .description("Mensajes por lote SMTP").register(registry);
+        this.batchFailures = Counter.builder("mail.batch.failures")
+                .description("Lotes con al menos un correo fallido").register(registry);
+        this.messageFailures = Counter.builder("mail.messages.failed")
+                .description("Correos que no se pudieron enviar").register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < senders; i++) {
+            var t = new Thread(this::run, "mail-batch-" + i);
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        // Los emisores vacían la cola y salen solos; si no alcanzan en el plazo se los interrumpe
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (var t : threads) {
+            try {
+                t.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.forEach(Thread::interrupt);
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(p -> p.done().completeExceptionally(stopped()));
+        if (!left.isEmpty()) log.warn("{} correos sin enviar al apagar; vuelven a reintento", left.size());
+    }
+
+    /** Encola el mensaje; bloquea si la cola está llena (backpressure hacia el despacho). */
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        var pending = new Pending(message, new CompletableFuture<>());
+        if (!running) {
+            pending.done().completeExceptionally(stopped());
+            return pending.done();
+        }
+        try {
+            queue.put(pending);
+            // Encolado justo mientras se apagaba: nadie lo va a tomar
+            if (!running && queue.remove(pending)) pending.done().completeExceptionally(stopped());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.done().completeExceptionally(e);
+        }
+        return pending.done();
+    }
+
+    private void run() {
+        Transport transport = null;
+        long lastUse = System.nanoTime();
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        // Apagando: se sigue hasta vaciar la cola
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    if (transport != null && System.nanoTime() - lastUse > idleCloseNanos) {
+                        close(transport);
+                        transport = null;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long wait = deadline - System.nanoTime();
+                    var next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                transport = sendBatch(transport, batch);
+                lastUse = System.nanoTime();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                // Un lote a medio juntar cuando llega la interrupción no queda colgado (no-op si ya salió)
+                batch.forEach(p -> p.done().completeExceptionally(stopped()));
+                batch.clear();
+            }
+        }
+        close(transport);
+    }
+
+    private Transport sendBatch(Transport transport, List<Pending> batch) {
+        long start = System.nanoTime();
+        int failed = 0;
+        if (!(mail instanceof JavaMailSenderImpl impl)) {
+            // Sin acceso al Transport: send(MimeMessage...) usa al menos una sola conexión por lote
+            try {
+                mail.send(batch.stream().map(Pending::message).toArray(MimeMessage[]::new));
+                batch.forEach(p -> p.done().complete(null));
+            } catch (RuntimeException e) {
+                batch.forEach(p -> p.done().completeExceptionally(e));
+                failed = batch.size();
+            }
+        } else {
+            for (var p : batch) {
+                try {
+                    transport = sendOne(impl, transport, p.message());
+                    p.done().complete(null);
+                } catch (MessagingException | RuntimeException e) {
+                    failed++;
+                    p.done().completeExceptionally(e);
+                }
+            }
+        }
+        batchTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        batchSize.record(batch.size());
+        if (failed > 0) {
+            batchFailures.increment();
+            messageFailures.increment(failed);
+        }
+        return transport;
+    }
+
+    private Transport sendOne(JavaMailSenderImpl impl, Transport transport, MimeMessage msg) throws MessagingException {
+        if (msg.getSentDate() == null) msg.setSentDate(new Date());
+        msg.saveChanges();
+        if (transport == null || !transport.isConnected()) transport = connect(impl);
+        try {
+            transport.sendMessage(msg, msg.getAllRecipients());
+        } catch (SendFailedException e) {
+            throw e; // destinatario rechazado: la conexión sigue sirviendo
+        } catch (MessagingException e) {
+            // Conexión caída (timeout del servidor, reset): se reconecta una vez
+            close(transport);
+            transport = connect(impl);
+            transport.sendMessage(msg, msg.getAllRecipients());
+        }
+        return transport;
+    }
+
+    private static Transport connect(JavaMailSenderImpl impl) throws MessagingException {
+        String protocol = impl.getProtocol() != null ? impl.getProtocol() : "smtp";
+        Transport t = impl.getSession().getTransport(protocol);
+        t.connect(impl.getHost(), impl.getPort(), impl.getUsername(), impl.getPassword());
+        return t;
+    }
+
+    private static void close(Transport transport) {
+        if (transport == null) return;
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error al cerrar conexión SMTP: {}", e.getMessage());
+        }
+    }
+
+    private static IllegalStateException stopped() {
+        return new IllegalStateException("Envío de correos detenido (apagado del servicio)");
+    }
+
+    private record Pending(MimeMessage message, CompletableFuture<Void> done) {}
+}
@@ -0,0 +1,166 @@
+package com.root.notification_service.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Plantillas de notificación compiladas una sola vez al arrancar (notification-templates.properties),
+ * indexadas por tipo de evento y locale. Renderizar es recorrer segmentos ya parseados sobre un
+ * StringBuilder reutilizado por hilo; las fechas usan un DateTimeFormatter cacheado por locale.
+ */
+@Component
+public class NotificationTemplates {
+
+    /** Variables disponibles en las plantillas, en el orden en que se pasan a {@link #render}. */
+    public enum Var {
+        FIRST_NAME("firstName"), SPECIALTY("specialty"), START_AT("startAt"), END_AT("endAt");
+
+        final String key;
+
+        Var(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final String DEFAULT_TYPE = "default";
+    private static final int VAR_COUNT = Var.values().length;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    @Value("${app.notify.locale:es}")
+    private String defaultLocale;
+    @Value("${app.notify.zone:America/Guayaquil}")
+    private String zoneId;
+    @Value("${app.notify.date-pattern:EEEE d 'de' MMMM yyyy, HH:mm}")
+    private String datePattern;
+
+    private final Map<String, Compiled> templates = new HashMap<>();
+    private final Map<String, DateTimeFormatter> formatters = new HashMap<>();
+
+    public record Rendered(String subject, String body) {}
+
+    private record Compiled(Object[] subject, Object[] body) {}
+
+    @PostConstruct
+    void compile() throws IOException {
+        var props = new Properties();
+        try (Reader in = new InputStreamReader(new ClassPathResource("notification-templates.properties").getInputStream(),
+                StandardCharsets.UTF_8)) {
+            props.load(in);
+        }
+        ZoneId zone = ZoneId.of(zoneId);
+        for (String name : props.stringPropertyNames()) {
+            if (!name.endsWith(".subject")) continue;
+            String base = name.substring(0, name.length() - ".subject".length()); // <tipo>.<locale>
+            String body = props.getProperty(base + ".body");
+            if (body == null) throw new IllegalStateException("Falta la plantilla " + base + ".body");
+            templates.put(base, new Compiled(parse(props.getProperty(name)), parse(body)));
+
+            String locale = base.substring(base.lastIndexOf('.') + 1);
+            formatters.computeIfAbsent(locale,
+                    l -> DateTimeFormatter.ofPattern(datePattern, Locale.forLanguageTag(l)).withZone(zone));
+        }
+        if (!templates.containsKey(DEFAULT_TYPE + "." + defaultLocale))
+            throw new IllegalStateException("Falta la plantilla " + DEFAULT_TYPE + "." + defaultLocale);
+    }
+
+    /** Arreglo de valores vacío para {@link #render}. */
+    public static Object[] newValues() {
+        return new Object[VAR_COUNT];
+    }
+
+    /**
+     * @param values valores indexados por {@link Var#ordinal()}; startAt/endAt pueden venir como Instant,
+     *               epoch-seconds (número) o ISO-8601 y se formatean en la zona configurada
+     * @param locale tag del paciente (es, en-US, en_GB...); las plantillas van solo por idioma
+     */
+    public Rendered render(String type, String locale, Object[] values) {
+        String loc = language(locale);
+        var t = templates.get(type + "." + loc);
+        if (t == null) t = templates.get(type + "." + defaultLocale);
+        if (t == null) {
+            t = templates.get(DEFAULT_TYPE + "." + loc);
+            if (t == null) t = templates.get(DEFAULT_TYPE + "." + defaultLocale);
+        }
+        var fmt = formatters.getOrDefault(loc, formatters.get(defaultLocale));
+        return new Rendered(write(t.subject(), values, fmt), write(t.body(), values, fmt));
+    }
+
+    private String language(String locale) {
+        if (locale == null || locale.isBlank()) return defaultLocale;
+        String language = Locale.forLanguageTag(locale.replace('_', '-')).getLanguage();
+        return language.isEmpty() ? defaultLocale : language;
+    }
+
+    private static String write(Object[] segments, Object[] values, DateTimeFormatter fmt) {
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        for (Object seg : segments) {
+            if (seg instanceof Var v) {
+                Object value = values[v.ordinal()];
+                if (v == Var.START_AT || v == Var.END_AT) {
+                    Instant at = toInstant(value);
+                    if (at != null) {
+                        fmt.formatTo(at, sb);
+                        continue;
+                    }
+                }
+                sb.append(value);
+            } else {
+                sb.append((String) seg);
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Segmentos: String literal o {@link Var}. */
+    private static Object[] parse(String template) {
+        List<Object> out = new ArrayList<>();
+        int i = 0;
+        while (i < template.length()) {
+            int open = template.indexOf("${", i);
+            if (open < 0) {
+                out.add(template.substring(i));
+                break;
+            }
+            if (open > i) out.add(template.substring(i, open));
+            int close = template.indexOf('}', open);
+            if (close < 0) throw new IllegalStateException("Plantilla mal formada: " + template);
+            out.add(var(template.substring(open + 2, close)));
+            i = close + 1;
+        }
+        return out.toArray();
+    }
+
+    private static Var var(String key) {
+        for (Var v : Var.values()) {
+            if (v.key.equals(key)) return v;
+        }
+        throw new IllegalStateException("Variable de plantilla desconocida: " + key);
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Instant at) return at;
+        try {
+            if (value instanceof Number n) {
+                var seconds = new BigDecimal(n.toString());
+                return Instant.ofEpochSecond(seconds.longValue(),
+                        seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+            }
+            if (value instanceof String s && !s.isBlank()) {
+                return Instant.parse(s);
+            }
+        } catch (RuntimeException ignored) {
+            // Se imprime el valor tal cual
+        }
+        return null;
+    }
+}
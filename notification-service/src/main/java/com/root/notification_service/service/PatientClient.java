@@ -1,7 +1,7 @@
 package com.root.notification_service.service;
 
-
-
+import com.root.clinic_common.cache.PatientCache;
+import com.root.clinic_common.http.RemoteUnavailableException;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
@@ -11,13 +11,27 @@ import java.util.*;
 public class PatientClient {
 
   private final RestClient rest;
+  private final PatientCache cache;
 
-  public PatientClient(@Qualifier("patientRestClient") RestClient rest) {
+  public PatientClient(@Qualifier("patientRestClient") RestClient rest, PatientCache cache) {
     this.rest = rest;
+    this.cache = cache;
   }
 
   @SuppressWarnings("unchecked")
   public Map<String,Object> get(UUID id){
-    return rest.get().uri("/{id}", id).retrieve().body(Map.class);
+    var cached = cache.get(id);
+    if (cached != null) return cached;
+
+    try {
+      Map<String,Object> p = rest.get().uri("/{id}", id).retrieve().body(Map.class);
+      if (p != null) cache.put(id, p);
+      return p;
+    } catch (RemoteUnavailableException e) {
+      // Caído o circuito abierto: alcanza con la última copia conocida (email y nombre)
+      var stale = cache.getStale(id);
+      if (stale != null) return stale;
+      throw e;
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.root.notification_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DedupStoreTest {
+
+	@Test
+	void eventIsClaimedOnlyOnce() {
+		var store = new DedupStore(10, Duration.ofHours(1));
+		assertTrue(store.claim("e1"));
+		assertFalse(store.claim("e1"));
+		assertTrue(store.claim("e2"));
+	}
+
+	@Test
+	void releasedEventCanBeClaimedAgain() {
+		var store = new DedupStore(10, Duration.ofHours(1));
+		assertTrue(store.claim("e1"));
+		store.release("e1");
+		assertTrue(store.claim("e1"));
+		assertFalse(store.claim("e1"));
+	}
+
+	@Test
+	void expiredEventCanBeClaimedAgain() {
+		var store = new DedupStore(10, Duration.ZERO);
+		assertTrue(store.claim("e1"));
+		assertTrue(store.claim("e1"));
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	void oldestEntryIsDroppedWhenFull() {
+		var store = new DedupStore(2, Duration.ofHours(1));
+		store.claim("e1");
+		store.claim("e2");
+		store.claim("e3");
+		assertEquals(2, store.size());
+		assertFalse(store.claim("e3"));
+		assertFalse(store.claim("e2"));
+		assertTrue(store.claim("e1")); // se había descartado; ahora desplaza a e2
+		assertTrue(store.claim("e2"));
+	}
+}
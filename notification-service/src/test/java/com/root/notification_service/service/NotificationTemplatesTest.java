@@ -0,0 +1,35 @@
+package com.root.notification_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationTemplatesTest {
+
+	private NotificationTemplates templates;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		templates = new NotificationTemplates();
+		ReflectionTestUtils.setField(templates, "defaultLocale", "es");
+		ReflectionTestUtils.setField(templates, "zoneId", "UTC");
+		ReflectionTestUtils.setField(templates, "datePattern", "yyyy-MM-dd HH:mm");
+		templates.compile();
+	}
+
+	@Test
+	void regionalTagUsesLanguageTemplate() {
+		var en = templates.render("appointment.cancelled", "en", NotificationTemplates.newValues());
+		assertEquals(en, templates.render("appointment.cancelled", "en-US", NotificationTemplates.newValues()));
+		assertEquals(en, templates.render("appointment.cancelled", "en_GB", NotificationTemplates.newValues()));
+		assertEquals("Appointment cancelled", en.subject());
+	}
+
+	@Test
+	void missingOrUnknownLocaleFallsBackToDefault() {
+		assertEquals("Cita cancelada", templates.render("appointment.cancelled", null, NotificationTemplates.newValues()).subject());
+		assertEquals("Cita cancelada", templates.render("appointment.cancelled", "fr-FR", NotificationTemplates.newValues()).subject());
+	}
+}
@@ -1,11 +1,15 @@
 package com.root.patient_service.config;
 
+import com.root.clinic_common.messaging.EventMessageConverters;
+import com.root.patient_service.service.PatientEvent;
 import org.springframework.amqp.core.TopicExchange;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Map;
+
 @Configuration
 public class RabbitConfig {
     @Value("${app.amqp.exchange}")
@@ -16,8 +20,10 @@ public class RabbitConfig {
         return new TopicExchange(exchangeName, true, false);
     }
 
+    // JSON o CBOR según el content-type de cada mensaje; se publica con app.amqp.content-type
     @Bean
-    public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(@Value("${app.amqp.content-type:application/json}") String contentType) {
+        Map<String, Class<?>> types = Map.of(PatientEvent.TYPE_ID, PatientEvent.class);
+        return EventMessageConverters.byContentType(contentType, types);
     }
 }
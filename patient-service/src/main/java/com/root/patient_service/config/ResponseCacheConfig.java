@@ -0,0 +1,19 @@
+package com.root.patient_service.config;
+
+import com.root.clinic_common.cache.ResponseCache;
+import com.root.patient_service.web.dto.PatientResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.*;
+
+import java.time.Duration;
+
+@Configuration
+public class ResponseCacheConfig {
+
+    // GET /patients/{id}, invalidada al commit y por patient.updated/deleted
+    @Bean
+    public ResponseCache<PatientResponse> patientResponseCache(@Value("${app.patients.cache.max-size:10000}") long maxSize,
+                                                          @Value("${app.patients.cache.ttl:10m}") Duration ttl) {
+        return new ResponseCache<>(maxSize, ttl);
+    }
+}
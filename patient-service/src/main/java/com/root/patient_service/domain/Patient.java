@@ -15,6 +15,8 @@ import java.util.*;
 @Table(name = "patients", uniqueConstraints = {
         @UniqueConstraint(name = "uk_patients_email", columnNames = "email"),
         @UniqueConstraint(name = "uk_patients_dni", columnNames = "dni")
+}, indexes = {
+        @Index(name = "idx_patients_last_name", columnList = "lastName,id")
 })
 public class Patient {
     @Id
@@ -41,6 +43,9 @@ public class Patient {
     @Column(length = 20)
     private String phone;
 
+    @Column(length = 10)
+    private String locale; // idioma de las notificaciones (es, en); null = el por defecto
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 12)
     private PatientStatus status = PatientStatus.ACTIVE;
@@ -0,0 +1,32 @@
+package com.root.patient_service.messaging;
+
+import com.root.clinic_common.cache.ResponseCache;
+import com.root.patient_service.service.PatientEvent;
+import com.root.patient_service.web.dto.PatientResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.*;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Invalida la {@link ResponseCache} de pacientes con los patient.updated/deleted publicados por
+ * cualquier instancia (cola anónima por instancia, así cada una recibe todos los eventos).
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientEventsListener {
+
+    private final ResponseCache<PatientResponse> cache;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue(autoDelete = "true", exclusive = "true"),
+            exchange = @Exchange(value = "${app.amqp.exchange}", type = "topic"),
+            key = {"${app.amqp.routing.updated}", "${app.amqp.routing.deleted}"}))
+    public void onEvent(PatientEvent event) {
+        if (event.payload() instanceof Map<?, ?> body && body.get("id") != null) {
+            cache.evict(UUID.fromString(String.valueOf(body.get("id"))));
+        }
+    }
+}
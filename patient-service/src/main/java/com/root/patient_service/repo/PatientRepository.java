@@ -1,9 +1,13 @@
 package com.root.patient_service.repo;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.root.patient_service.domain.Patient;
 
@@ -13,4 +17,15 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
     boolean existsByEmail(String email);
 
     boolean existsByDni(String dni);
+
+    // Listado con keyset (lastName, id) sobre idx_patients_last_name: sin COUNT ni OFFSET
+    @Query("select p from Patient p order by p.lastName, p.id")
+    List<Patient> scrollFirst(Limit limit);
+
+    @Query("""
+           select p from Patient p
+           where p.lastName > :lastName or (p.lastName = :lastName and p.id > :id)
+           order by p.lastName, p.id
+           """)
+    List<Patient> scrollAfter(@Param("lastName") String lastName, @Param("id") UUID id, Limit limit);
 }
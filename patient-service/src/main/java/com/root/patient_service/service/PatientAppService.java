@@ -1,7 +1,9 @@
 package com.root.patient_service.service;
 
+import com.root.clinic_common.cache.ResponseCache;
 import com.root.patient_service.domain.*;
 import com.root.patient_service.repo.*;
+import com.root.patient_service.web.dto.CursorPage;
 import com.root.patient_service.web.dto.PatientRequest;
 import com.root.patient_service.web.dto.PatientResponse;
 
@@ -9,18 +11,26 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class PatientAppService {
+    private static final int MAX_IDS = 100;
+
     private final PatientRepository repo;
     private final PatientEventPublisher events;
+    private final ResponseCache<PatientResponse> cache;
 
     public PatientResponse create(@Valid PatientRequest req) {
         if (repo.existsByEmail(req.email()))
@@ -34,6 +44,7 @@ public class PatientAppService {
                 .dni(req.dni())
                 .birthDate(req.birthDate())
                 .phone(req.phone())
+                .locale(req.locale())
                 .status(PatientStatus.ACTIVE)
                 .build();
         p = repo.save(p);
@@ -42,10 +53,24 @@ public class PatientAppService {
         return res;
     }
 
-    @Transactional(readOnly = true)
+    // SUPPORTS: un hit de cache no abre transacción ni toca la base; en un miss findById usa la suya
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public PatientResponse get(UUID id) {
-        Patient p = repo.findById(id).orElseThrow(() -> new EntityNotFoundException("Paciente no encontrado"));
-        return toResponse(p);
+        return cache.get(id, key -> toResponse(repo.findById(key)
+                .orElseThrow(() -> new EntityNotFoundException("Paciente no encontrado"))));
+    }
+
+    /**
+     * Búsqueda por varios ids en el orden pedido; los inexistentes se omiten. Lo que no está en
+     * cache sale de un solo findAllById.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<PatientResponse> getAll(List<UUID> ids) {
+        if (ids.size() > MAX_IDS)
+            throw new IllegalArgumentException("Se admiten hasta " + MAX_IDS + " ids por consulta");
+        var found = cache.getAll(ids, missing -> repo.findAllById(missing).stream()
+                .collect(Collectors.toMap(Patient::getId, this::toResponse)));
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).toList();
     }
 
     @Transactional(readOnly = true)
@@ -54,12 +79,38 @@ public class PatientAppService {
                 .map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<PatientResponse> scroll(String cursor, int size) {
+        int limit = pageLimit(size);
+        List<Patient> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repo.scrollFirst(Limit.of(limit + 1));
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = repo.scrollAfter(after.lastName(), after.id(), Limit.of(limit + 1));
+        }
+        return cursorPage(rows.stream().map(this::toResponse).toList(), limit,
+                p -> new KeysetCursor(p.lastName(), p.id()));
+    }
+
+    private static int pageLimit(int size) {
+        return Math.min(Math.max(size, 1), 100);
+    }
+
+    // Se pide una fila extra (limit + 1) para saber si hay página siguiente sin hacer COUNT
+    private static <T> CursorPage<T> cursorPage(List<T> rows, int limit, Function<T, KeysetCursor> key) {
+        if (rows.size() <= limit) return new CursorPage<>(rows, limit, null);
+        var page = rows.subList(0, limit);
+        return new CursorPage<>(page, limit, key.apply(page.get(limit - 1)).encode());
+    }
+
     public PatientResponse update(UUID id, @Valid PatientRequest req) {
         Patient p = repo.findById(id).orElseThrow(() -> new EntityNotFoundException("Paciente no encontrado"));
         p.setFirstName(req.firstName());
         p.setLastName(req.lastName());
         p.setBirthDate(req.birthDate());
         p.setPhone(req.phone());
+        p.setLocale(req.locale());
         if (!p.getEmail().equals(req.email())) {
             if (repo.existsByEmail(req.email()))
                 throw new IllegalArgumentException("Email ya registrado");
@@ -71,6 +122,7 @@ public class PatientAppService {
             p.setDni(req.dni());
         }
         PatientResponse res = toResponse(p);
+        cache.evictAfterCommit(id);
         events.publishUpdated(res);
         return res;
     }
@@ -79,11 +131,12 @@ public class PatientAppService {
         if (!repo.existsById(id))
             return;
         repo.deleteById(id);
-        events.publishDeleted("{\"id\":\"" + id + "\"}");
+        cache.evictAfterCommit(id);
+        events.publishDeleted(id);
     }
 
     private PatientResponse toResponse(Patient p) {
         return new PatientResponse(p.getId(), p.getFirstName(), p.getLastName(), p.getEmail(),
-                p.getDni(), p.getPhone(), p.getStatus(), p.getBirthDate(), p.getCreatedAt(), p.getUpdatedAt());
+                p.getDni(), p.getPhone(), p.getLocale(), p.getStatus(), p.getBirthDate(), p.getCreatedAt(), p.getUpdatedAt());
     }
 }
\ No newline at end of file
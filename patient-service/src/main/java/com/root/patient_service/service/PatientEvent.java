@@ -0,0 +1,14 @@
+package com.root.patient_service.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Sobre de los eventos de pacientes. En el header __TypeId__ viaja {@link #TYPE_ID}, no el nombre
+ * de la clase. El payload es un PatientResponse, o {@link Deleted} en patient.deleted.
+ */
+public record PatientEvent(UUID eventId, String type, Instant occurredAt, Object payload) {
+    public static final String TYPE_ID = "patient.event";
+
+    public record Deleted(UUID id) {}
+}
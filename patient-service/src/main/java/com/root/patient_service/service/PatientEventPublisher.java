@@ -1,11 +1,13 @@
 package com.root.patient_service.service;
 
+import com.root.patient_service.web.dto.PatientResponse;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import lombok.RequiredArgsConstructor;
-import java.util.*;
+import java.time.Instant;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -19,17 +21,17 @@ private final TopicExchange patientExchange;
 @Value("${app.amqp.routing.deleted}") private String rkDeleted;
 
 
-public void publishCreated(Object payload){ send(rkCreated, payload); }
-public void publishUpdated(Object payload){ send(rkUpdated, payload); }
-public void publishDeleted(Object payload){ send(rkDeleted, payload); }
+public void publishCreated(PatientResponse payload){ send(rkCreated, payload); }
+public void publishUpdated(PatientResponse payload){ send(rkUpdated, payload); }
+public void publishDeleted(UUID id){ send(rkDeleted, new PatientEvent.Deleted(id)); }
 
 
 private void send(String routingKey, Object payload){
-Map<String, Object> event = Map.of(
-"type", routingKey,
-"occurredAt", new Date(),
-"payload", payload
-);
-rabbitTemplate.convertAndSend(patientExchange.getName(), routingKey, event);
+UUID eventId = UUID.randomUUID();
+var event = new PatientEvent(eventId, routingKey, Instant.now(), payload);
+rabbitTemplate.convertAndSend(patientExchange.getName(), routingKey, event, m -> {
+m.getMessageProperties().setMessageId(eventId.toString());
+return m;
+});
 }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.root.patient_service.web;
 
 import com.root.patient_service.service.*;
+import com.root.patient_service.web.dto.CursorPage;
 import com.root.patient_service.web.dto.PatientRequest;
 import com.root.patient_service.web.dto.PatientResponse;
 
@@ -9,9 +10,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 
 import java.net.URI;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -28,8 +31,19 @@ return ResponseEntity.created(URI.create("/api/v1/patients/"+res.id())).body(res
 }
 
 
+// ETag derivado de updatedAt: con If-None-Match el cliente revalida y recibe 304 sin cuerpo
 @GetMapping("/{id}")
-public PatientResponse get(@PathVariable UUID id){ return app.get(id); }
+public ResponseEntity<PatientResponse> get(@PathVariable UUID id, WebRequest request){
+PatientResponse res = app.get(id);
+String etag = "\"" + res.updatedAt().getEpochSecond() + "." + res.updatedAt().getNano() + "\"";
+if (request.checkNotModified(etag)) return null;
+return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(res);
+}
+
+
+// GET ?ids=a,b,c: varios pacientes en una llamada (evita una petición por fila en los listados)
+@GetMapping(params = "ids")
+public List<PatientResponse> getAll(@RequestParam List<UUID> ids){ return app.getAll(ids); }
 
 
 @GetMapping
@@ -39,6 +53,13 @@ return app.list(page, size);
 }
 
 
+@GetMapping("/scroll")
+public CursorPage<PatientResponse> scroll(@RequestParam(required = false) String cursor,
+@RequestParam(defaultValue = "20") int size){
+return app.scroll(cursor, size);
+}
+
+
 @PutMapping("/{id}")
 public PatientResponse update(@PathVariable UUID id, @RequestBody @Valid PatientRequest req){
 return app.update(id, req);
@@ -9,5 +9,6 @@ public record PatientRequest(
         @Email @NotBlank String email,
         @NotBlank String dni,
         LocalDate birthDate,
-        String phone) {
+        String phone,
+        @Pattern(regexp = "[a-z]{2}(-[A-Z]{2})?") String locale) {
 }
@@ -13,6 +13,7 @@ public record PatientResponse(
         String email,
         String dni,
         String phone,
+        String locale,
         PatientStatus status,
         LocalDate birthDate,
         Instant createdAt,
@@ -0,0 +1,35 @@
+package com.root.patient_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+	@Test
+	void roundTripKeepsLastNameAndId() {
+		var cursor = new KeysetCursor("Pérez", UUID.randomUUID());
+		assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void lastNameMayContainTheSeparator() {
+		var cursor = new KeysetCursor("De la Torre | Ruiz", UUID.randomUUID());
+		assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void encodedCursorIsUrlSafe() {
+		var encoded = new KeysetCursor("Núñez?&=", UUID.randomUUID()).encode();
+		assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+	}
+
+	@Test
+	void malformedCursorIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("no es base64!"));
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("c2luLXNlcGFyYWRvcg"));
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(""));
+	}
+}